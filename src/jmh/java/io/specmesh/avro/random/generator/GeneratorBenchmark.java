@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Generator#generate()} throughput for every test and demo schema.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+  @Param({
+      "test-schemas/array.json",
+      "test-schemas/decimals.json",
+      "test-schemas/distributions.json",
+      "test-schemas/enum.json",
+      "test-schemas/fixed.json",
+      "test-schemas/iteration.json",
+      "test-schemas/logical-types.json",
+      "test-schemas/maps.json",
+      "test-schemas/matryoshka-dolls.json",
+      "test-schemas/nulls.json",
+      "test-schemas/odds.json",
+      "test-schemas/options-file.json",
+      "test-schemas/options.json",
+      "test-schemas/primitives.json",
+      "test-schemas/ranges.json",
+      "test-schemas/recursive.json",
+      "test-schemas/regex.json",
+      "test-schemas/simple-schema.json",
+      "test-schemas/stackoverflow.json",
+      "test-schemas/strings.json",
+      "test-schemas/temporal.json",
+      "test-schemas/unions.json",
+      "demo-schema/campaign_finance.avro",
+      "demo-schema/clickstream_codes_schema.avro",
+      "demo-schema/clickstream_schema.avro",
+      "demo-schema/clickstream_users_schema.avro",
+      "demo-schema/credit_cards.avro",
+      "demo-schema/device_information.avro",
+      "demo-schema/fleet_mgmt_description.avro",
+      "demo-schema/fleet_mgmt_location.avro",
+      "demo-schema/fleet_mgmt_sensors.avro",
+      "demo-schema/gaming_games.avro",
+      "demo-schema/gaming_player_activity.avro",
+      "demo-schema/gaming_players.avro",
+      "demo-schema/insurance_customer_activity.avro",
+      "demo-schema/insurance_customers.avro",
+      "demo-schema/insurance_offers.avro",
+      "demo-schema/inventory.avro",
+      "demo-schema/orders_schema.avro",
+      "demo-schema/pageviews_schema.avro",
+      "demo-schema/payroll_bonus.avro",
+      "demo-schema/payroll_employee.avro",
+      "demo-schema/payroll_employee_location.avro",
+      "demo-schema/pizza_orders.avro",
+      "demo-schema/pizza_orders_cancelled.avro",
+      "demo-schema/pizza_orders_completed.avro",
+      "demo-schema/product.avro",
+      "demo-schema/purchase.avro",
+      "demo-schema/ratings_schema.avro",
+      "demo-schema/shoe_clickstream.avro",
+      "demo-schema/shoe_customers.avro",
+      "demo-schema/shoe_orders.avro",
+      "demo-schema/shoes.avro",
+      "demo-schema/siem_logs.avro",
+      "demo-schema/stock_trades_schema.avro",
+      "demo-schema/stores.avro",
+      "demo-schema/syslog_logs.avro",
+      "demo-schema/transactions.avro",
+      "demo-schema/users_array_map_schema.avro",
+      "demo-schema/users_schema.avro"
+  })
+  public String schema;
+
+  private Generator generator;
+
+  @Setup
+  public void setUp() {
+    generator = new Generator.Builder()
+        .schemaString(ResourceUtil.loadContent(schema))
+        .random(new Random(0L))
+        .build();
+  }
+
+  @Benchmark
+  public Object generate() {
+    return generator.generate();
+  }
+}
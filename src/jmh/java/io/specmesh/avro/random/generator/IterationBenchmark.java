@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive iterators behind {@value Generator#ITERATION_PROP} with the
+ * arbitrary-precision iterators they replace wherever values cannot overflow.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IterationBenchmark {
+
+  @Param({"long", "double"})
+  public String type;
+
+  private Generator.SeekableIterator primitive;
+  private Generator.SeekableIterator arbitraryPrecision;
+
+  @Setup
+  public void setUp() {
+    if (type.equals("long")) {
+      primitive = PrimitiveIterators.integral(0, 1_000_000_000L, 3, 0, 0, false);
+      arbitraryPrecision = new Generator.IntegralIterator(
+          0, 1_000_000_000L, 3, 0, 0, Generator.IntegralIterator.Type.LONG);
+    } else {
+      primitive = PrimitiveIterators.decimal(0, 1_000_000, 0.25, 0, 0, false);
+      arbitraryPrecision = new Generator.DecimalIterator(
+          0, 1_000_000, 0.25, 0, 0, Generator.DecimalIterator.Type.DOUBLE);
+    }
+  }
+
+  @Benchmark
+  public Object primitive() {
+    return primitive.next();
+  }
+
+  @Benchmark
+  public Object arbitraryPrecision() {
+    return arbitraryPrecision.next();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end-to-end generate-and-encode paths used by {@link Main}, in records per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MainBenchmark {
+
+  private static final int RECORDS_PER_INVOCATION = 1_000;
+
+  @Param({
+      "demo-schema/clickstream_schema.avro",
+      "demo-schema/orders_schema.avro",
+      "demo-schema/pageviews_schema.avro",
+      "demo-schema/stock_trades_schema.avro",
+      "demo-schema/users_schema.avro",
+      "test-schemas/matryoshka-dolls.json"
+  })
+  public String schema;
+
+  private Generator generator;
+
+  @Setup
+  public void setUp() {
+    generator = new Generator.Builder()
+        .schemaString(ResourceUtil.loadContent(schema))
+        .random(new Random(0L))
+        .build();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+  public void json() throws IOException {
+    Main.writeJson(generator, RECORDS_PER_INVOCATION, OutputStream.nullOutputStream(), false);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+  public void binary() throws IOException {
+    Main.writeBinary(generator, RECORDS_PER_INVOCATION, OutputStream.nullOutputStream());
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Generator#generate()} throughput with each {@link RandomAlgorithm}, on schemas
+ * dominated by random number generation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomAlgorithmBenchmark {
+
+  @Param({"jdk", "splittable", "xoroshiro128pp", "l64x128mix"})
+  public String algorithm;
+
+  @Param({
+      "test-schemas/primitives.json",
+      "test-schemas/matryoshka-dolls.json",
+      "demo-schema/stock_trades_schema.avro"
+  })
+  public String schema;
+
+  private Generator generator;
+
+  @Setup
+  public void setUp() {
+    generator = new Generator.Builder()
+        .schemaString(ResourceUtil.loadContent(schema))
+        .random(RandomAlgorithm.forName(algorithm), 0L)
+        .build();
+  }
+
+  @Benchmark
+  public Object generate() {
+    return generator.generate();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a generated record, including all nested records, with a
+ * {@link GenericRecordBuilder} against filling a {@link GenericData.Record} positionally, as
+ * {@link Generator} does. Field values are generated up front so only record construction is
+ * measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordBenchmark {
+
+  @Param({
+      "test-schemas/matryoshka-dolls.json",
+      "test-schemas/primitives.json",
+      "demo-schema/users_array_map_schema.avro"
+  })
+  public String schema;
+
+  private GenericRecord record;
+
+  @Setup
+  public void setUp() {
+    record = (GenericRecord) new Generator.Builder()
+        .schemaString(ResourceUtil.loadContent(schema))
+        .random(new Random(0L))
+        .build()
+        .generate();
+  }
+
+  @Benchmark
+  public Object builder() {
+    return withBuilder(record);
+  }
+
+  @Benchmark
+  public Object direct() {
+    return direct(record);
+  }
+
+  private static Object withBuilder(GenericRecord source) {
+    GenericRecordBuilder builder = new GenericRecordBuilder(source.getSchema());
+    for (Schema.Field field : source.getSchema().getFields()) {
+      builder.set(field, copy(source.get(field.pos()), false));
+    }
+    return builder.build();
+  }
+
+  private static Object direct(GenericRecord source) {
+    GenericData.Record result = new GenericData.Record(source.getSchema());
+    for (Schema.Field field : source.getSchema().getFields()) {
+      result.put(field.pos(), copy(source.get(field.pos()), true));
+    }
+    return result;
+  }
+
+  private static Object copy(Object value, boolean direct) {
+    if (value instanceof GenericRecord) {
+      return direct ? direct((GenericRecord) value) : withBuilder((GenericRecord) value);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import com.mifmif.common.regex.Generex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares generating strings for a {@value Generator#REGEX_PROP} through the plan the generator
+ * compiles, a walk of the compiled {@link RegexAutomaton}, and the Generex random walk they
+ * replace. The fixed-length patterns are compiled to the character class fast path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RegexBenchmark {
+
+  @Param({
+      "[a-zA-Z]{5,15}",
+      "[A-Z]{2}\\d{6}[A-Z]",
+      "[a-f0-9]{32}",
+      "https://www[.]acme[.]com/product/[a-z]{5}"
+  })
+  public String regex;
+
+  private Generator compiled;
+  private ValueGenerator walk;
+  private Generex generex;
+
+  @Setup
+  public void setUp() {
+    compiled = new Generator.Builder()
+        .schemaString(String.format(
+            "{\"type\": \"string\", \"arg.properties\": {\"regex\": \"%s\"}}",
+            regex.replace("\\", "\\\\")))
+        .random(new Random(0))
+        .build();
+    walk = new ValueGenerators.RegexStringGenerator(
+        new Random(0),
+        RegexAutomaton.compile(regex, 0, Integer.MAX_VALUE - 1),
+        "",
+        ""
+    );
+    generex = new Generex(regex, new Random(0));
+  }
+
+  @Benchmark
+  public Object compiled() {
+    return compiled.generate();
+  }
+
+  @Benchmark
+  public Object walk() {
+    return walk.generate();
+  }
+
+  @Benchmark
+  public Object generex() {
+    return generex.random(0, Integer.MAX_VALUE - 1);
+  }
+}
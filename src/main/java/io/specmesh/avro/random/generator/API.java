@@ -16,48 +16,373 @@
 
 package io.specmesh.avro.random.generator;
 
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Generates {@code count} records for a schema, keyed by one of their fields.
+ *
+ * <p>Records can be pushed into a consumer with {@link #run(BiConsumer)}, or pulled at the
+ * consumer's own pace through {@link #iterator()}, {@link #stream()} or {@link #publisher()}. The
+ * pull-based forms generate each record only when it is asked for, so a slow sink never causes
+ * records to pile up in memory. Every form draws from the same underlying generator, and all are
+ * held to the {@link #rate(RateProfile) rate}, if one is set.
+ *
+ * <p>Sinks that take Avro binary can instead receive each record already encoded, through
+ * {@link #runEncoded(BiConsumer)}. Combined with {@link #replay(int, boolean, String)}, the encoded
+ * records are replayed from a pool generated up front, which is far cheaper than generating them.
+ */
 public class API {
 
     private final int count;
     private final String keyField;
-    private final Generator generator;
+    private final Random random;
+    private final Generator.Builder generatorBuilder;
+    private Generator generator;
+    private Keyspace keyspace;
+    private RecordPool pool;
+    private boolean sample;
+    private RateProfile rate;
+    private Pacer pacer = Pacer.UNLIMITED;
 
     public API(final int count, final String keyField, final String schema) {
+        this(count, keyField, schema, RandomAlgorithm.XOROSHIRO.create(new Random().nextLong()));
+    }
+
+    public API(final int count, final String keyField, final String schema, final Random random) {
         this.count = count;
         this.keyField = keyField;
-        var generatorBuilder = new Generator.Builder()
-                .random(new Random(System.currentTimeMillis()))
+        this.random = random;
+        this.generatorBuilder = new Generator.Builder()
+                .random(random)
                 .generation(count)
                 .schemaString(schema);
 
         generator = generatorBuilder.build();
     }
 
+    /**
+     * Draws every record's key from a fixed set of {@code cardinality} keys, so that the
+     * {@code count} records repeat keys as a stream of updates would. Keys are derived from a
+     * random index rather than stored, so even very large keyspaces cost no memory. Set this before
+     * generating any records.
+     * @param cardinality The number of distinct keys to draw from.
+     * @return This API.
+     * @see Generator.Builder#keyspace(String, long)
+     */
+    public synchronized API keyCardinality(final long cardinality) {
+        this.keyspace = new Keyspace(keyField, cardinality, random.nextLong());
+        this.generator = generatorBuilder.keyspace(keyspace).build();
+        return this;
+    }
+
+    /**
+     * Generates a pool of {@code poolSize} records up front, encoded into one off-heap buffer, that
+     * {@link #runEncoded(BiConsumer)} then replays instead of generating every record. Replayed
+     * records still draw fresh keys if a {@link #keyCardinality(long) key cardinality} was set
+     * first, and can have a timestamp field set to the time of replay; every other field repeats.
+     * @param poolSize The number of records to pool.
+     * @param sample Whether to replay records in a random order, instead of cycling through them.
+     * @param timestampField The long, date, time or timestamp field to set to the current time on
+     *     every replay, or null to replay the pooled values.
+     * @return This API.
+     */
+    public synchronized API replay(final int poolSize, final boolean sample, final String timestampField) {
+        this.pool = new RecordPool(generator, poolSize, keyField, keyspace, timestampField);
+        this.sample = sample;
+        return this;
+    }
+
+    /**
+     * Limits generation to the given number of records per second. The profile's clock starts when
+     * the first record is generated.
+     * @param rate The rate profile to hold to.
+     * @return This API.
+     */
+    public synchronized API rate(final RateProfile rate) {
+        this.rate = rate;
+        this.pacer = null;
+        return this;
+    }
+
     public void run(BiConsumer<Object, GenericRecord> consumer) {
 
         for (int i = 0; i < count; i++) {
-            final var generatedObject = generator.generate();
-            if (!(generatedObject instanceof GenericRecord)) {
-                throw new RuntimeException(String.format(
-                        "Expected Avro Random Generator to return instance of GenericRecord, found %s instead",
-                        generatedObject.getClass().getName()
-                ));
+            final var keyValue = next();
+            consumer.accept(keyValue.key(), keyValue.value());
+        }
+    }
+
+    /**
+     * Hands each of the {@code count} records to {@code consumer} as Avro binary, replaying them
+     * from the {@link #replay(int, boolean, String) pool} if there is one.
+     * @param consumer Receives each record's key and its encoding. The buffer is only valid during
+     *     the call, so copy it to retain it.
+     */
+    public void runEncoded(final BiConsumer<Object, ByteBuffer> consumer) {
+        final RecordPool.Reader reader = replayReader();
+        if (reader != null) {
+            for (int i = 0; i < count; i++) {
+                paceOne();
+                final ByteBuffer encoded = reader.next();
+                consumer.accept(reader.key(), encoded);
             }
-            final var avroRecord = (GenericRecord) generatedObject;
-
-            final var key = avroRecord.get(keyField);
-            if (key == null) {
-                throw new RuntimeException(String.format(
-                        "Expected key not found:" + keyField +
-                        generatedObject.getClass().getName()
-                ));
+            return;
+        }
+        final DatumWriter<Object> writer = new GenericDatumWriter<>(generator.schema());
+        final RecordBuffer buffer = new RecordBuffer();
+        BinaryEncoder encoder = null;
+        for (int i = 0; i < count; i++) {
+            final var keyValue = next();
+            buffer.reset();
+            encoder = EncoderFactory.get().directBinaryEncoder(buffer, encoder);
+            try {
+                writer.write(keyValue.value(), encoder);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+            consumer.accept(keyValue.key(), buffer.view());
+        }
+    }
+
+    /**
+     * Generates all records in batches, handing each batch to {@code consumer}. Locking, pacing and
+     * the consumer call happen once per batch rather than once per record, so batch sizes that
+     * match the sink's own batching, such as a Kafka producer's, keep per-record overhead low.
+     * @param batchSize The maximum number of records per batch; the last batch may be smaller.
+     * @param consumer Receives each batch. The list is not reused, so it may be retained.
+     */
+    public void runBatched(final int batchSize, final Consumer<List<KeyValue>> consumer) {
+        if (batchSize < 1) {
+            throw new RuntimeException(String.format("Batch size must be at least 1, was %d", batchSize));
+        }
+        for (int done = 0; done < count; done += batchSize) {
+            consumer.accept(nextBatch(Math.min(batchSize, count - done)));
+        }
+    }
+
+    /**
+     * @return An iterator over {@code count} records, each generated by the call to
+     *     {@link Iterator#next()} that returns it.
+     */
+    public Iterator<KeyValue> iterator() {
+        return new Iterator<>() {
+            private int remaining = count;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public KeyValue next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return API.this.next();
+            }
+        };
+    }
+
+    /**
+     * @return A sequential, lazily generated stream of {@code count} records. Short-circuiting
+     *     operations such as {@link Stream#limit(long)} stop generation early.
+     */
+    public Stream<KeyValue> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(
+                        iterator(),
+                        count,
+                        Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE
+                ),
+                false
+        );
+    }
+
+    /**
+     * Returns a publisher that emits {@code count} records to each subscriber and then completes.
+     * Records are generated on the thread that calls {@link Flow.Subscription#request(long)}, and
+     * never more than the subscriber has requested, so a subscriber applies backpressure simply by
+     * requesting less. Cancelling stops generation.
+     * @return A new publisher.
+     */
+    public Flow.Publisher<KeyValue> publisher() {
+        return subscriber -> {
+            final var subscription = new GeneratorSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+            subscription.drain();
+        };
+    }
+
+    private synchronized KeyValue next() {
+        pace(1);
+        return keyValue(generator.generate());
+    }
+
+    private synchronized List<KeyValue> nextBatch(final int size) {
+        pace(size);
+        final Object[] generated = generator.generateBatch(size);
+        final List<KeyValue> result = new ArrayList<>(size);
+        for (final Object generatedObject : generated) {
+            result.add(keyValue(generatedObject));
+        }
+        return result;
+    }
+
+    private synchronized RecordPool.Reader replayReader() {
+        return pool != null
+                ? pool.reader(RandomAlgorithm.XOROSHIRO.create(random.nextLong()), sample)
+                : null;
+    }
+
+    private synchronized void paceOne() {
+        pace(1);
+    }
+
+    private void pace(final int records) {
+        if (pacer == null) {
+            pacer = new Pacer(rate);
+        }
+        pacer.acquire(records);
+    }
+
+    private KeyValue keyValue(final Object generatedObject) {
+        if (!(generatedObject instanceof GenericRecord)) {
+            throw new RuntimeException(String.format(
+                    "Expected Avro Random Generator to return instance of GenericRecord, found %s instead",
+                    generatedObject.getClass().getName()
+            ));
+        }
+        final var avroRecord = (GenericRecord) generatedObject;
+
+        final var key = avroRecord.get(keyField);
+        if (key == null) {
+            throw new RuntimeException(String.format(
+                    "Expected key not found:" + keyField +
+                    generatedObject.getClass().getName()
+            ));
+        }
+        return new KeyValue(key, avroRecord);
+    }
+
+    /**
+     * A generated record and the value of its key field.
+     */
+    public static final class KeyValue {
+        private final Object key;
+        private final GenericRecord value;
+
+        KeyValue(final Object key, final GenericRecord value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public Object key() {
+            return key;
+        }
+
+        public GenericRecord value() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Emits records as demand allows. Signals are serialized by a work-in-progress counter: whichever
+     * thread raises it from zero emits, and any request made meanwhile, including a reentrant one
+     * from inside {@code onNext}, is picked up by that thread's loop.
+     */
+    private final class GeneratorSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super KeyValue> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean done;
+        private volatile IllegalArgumentException requestError;
+        private long emitted;
+
+        GeneratorSubscription(final Flow.Subscriber<? super KeyValue> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException(
+                        "Subscription request must be positive, was " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> {
+                    final long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
             }
-            consumer.accept(key, avroRecord);
+            int missed = 1;
+            do {
+                if (!done && requestError != null) {
+                    done = true;
+                    subscriber.onError(requestError);
+                }
+                long demand = requested.get();
+                long sent = 0;
+                while (!done && emitted < count && sent < demand) {
+                    final KeyValue keyValue;
+                    try {
+                        keyValue = next();
+                    } catch (RuntimeException e) {
+                        done = true;
+                        subscriber.onError(e);
+                        break;
+                    }
+                    subscriber.onNext(keyValue);
+                    emitted++;
+                    sent++;
+                }
+                if (!done && emitted == count) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+                if (sent != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-sent);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
         }
     }
 }
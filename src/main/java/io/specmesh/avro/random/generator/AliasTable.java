@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Samples indices with given weights in constant time, using Vose's alias method. The table is
+ * built once: each column holds a threshold and an alias, and a sample picks a column and then
+ * either that column or its alias, both from the same random long.
+ */
+final class AliasTable extends Distribution {
+  private static final long SCALE = 1L << Integer.SIZE;
+
+  private final long[] thresholds;
+  private final int[] aliases;
+
+  /**
+   * @param weights The non-negative weight of each index, of which at least one must be positive.
+   */
+  AliasTable(double[] weights) {
+    int n = weights.length;
+    double total = 0;
+    for (double weight : weights) {
+      total += weight;
+    }
+    thresholds = new long[n];
+    aliases = new int[n];
+    double[] scaled = new double[n];
+    Deque<Integer> small = new ArrayDeque<>();
+    Deque<Integer> large = new ArrayDeque<>();
+    for (int i = 0; i < n; i++) {
+      scaled[i] = weights[i] * n / total;
+      aliases[i] = i;
+      (scaled[i] < 1 ? small : large).push(i);
+    }
+    while (!small.isEmpty() && !large.isEmpty()) {
+      int less = small.pop();
+      int more = large.pop();
+      thresholds[less] = (long) (scaled[less] * SCALE);
+      aliases[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1;
+      (scaled[more] < 1 ? small : large).push(more);
+    }
+    // Whatever remains has a scaled weight of one, give or take rounding, so always keeps itself
+    for (int i : large) {
+      thresholds[i] = SCALE;
+    }
+    for (int i : small) {
+      thresholds[i] = SCALE;
+    }
+  }
+
+  /**
+   * @return The number of indices the table samples from.
+   */
+  int size() {
+    return thresholds.length;
+  }
+
+  /**
+   * @return A random index, drawn with probability proportional to its weight.
+   */
+  @Override
+  long sample(Random random) {
+    long bits = random.nextLong();
+    int column = (int) (((bits >>> Integer.SIZE) * thresholds.length) >>> Integer.SIZE);
+    return (bits & 0xFFFFFFFFL) < thresholds[column] ? column : aliases[column];
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes to an underlying stream on a dedicated I/O thread, so that the writing thread only waits
+ * on I/O once every buffer is full.
+ *
+ * <p>Bytes are copied into one of a fixed number of equally sized buffers. A full buffer, or one
+ * that is {@link #flush() flushed}, is queued for the I/O thread, which writes it out and hands it
+ * back for reuse. Two buffers give double buffering; more absorb longer I/O stalls. The stream
+ * counts how often, and for how long, each side waited on the other: the writing thread for a free
+ * buffer, and the I/O thread for a full one.
+ *
+ * <p>Errors from the underlying stream are rethrown by the next write, flush or close.
+ */
+final class AsyncOutputStream extends OutputStream {
+
+  private static final Buffer END = new Buffer(0);
+
+  private final OutputStream out;
+  private final BlockingQueue<Buffer> full;
+  private final BlockingQueue<Buffer> free;
+  private final Thread writer;
+  private final Stalls writerStalls = new Stalls();
+  private final Stalls ioStalls = new Stalls();
+  private volatile Exception error;
+  private Buffer current;
+  private boolean closed;
+
+  /**
+   * @param out The stream to write to on the I/O thread. Closing this stream closes it.
+   * @param buffers The number of buffers, at least 2.
+   * @param bufferSize The size of each buffer, in bytes.
+   */
+  AsyncOutputStream(OutputStream out, int buffers, int bufferSize) {
+    if (buffers < 2) {
+      throw new RuntimeException(String.format("Async output needs at least 2 buffers, was %d", buffers));
+    }
+    if (bufferSize < 1) {
+      throw new RuntimeException(String.format("Async buffer size must be at least 1, was %d", bufferSize));
+    }
+    this.out = out;
+    this.full = new ArrayBlockingQueue<>(buffers + 1);
+    this.free = new ArrayBlockingQueue<>(buffers);
+    for (int i = 1; i < buffers; i++) {
+      free.add(new Buffer(bufferSize));
+    }
+    this.current = new Buffer(bufferSize);
+    this.writer = new Thread(this::drain, "arg-output");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (current.length == current.data.length) {
+      handOff(false);
+    }
+    current.data[current.length++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    int written = 0;
+    while (written < len) {
+      if (current.length == current.data.length) {
+        handOff(false);
+      }
+      int chunk = Math.min(len - written, current.data.length - current.length);
+      System.arraycopy(b, off + written, current.data, current.length, chunk);
+      current.length += chunk;
+      written += chunk;
+    }
+  }
+
+  /**
+   * Queues whatever has been written so far, to be written and flushed by the I/O thread. Does not
+   * wait for it to be written.
+   */
+  @Override
+  public void flush() throws IOException {
+    handOff(true);
+  }
+
+  /**
+   * Waits for everything written to be written out, then closes the underlying stream.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      handOff(true);
+    } finally {
+      closed = true;
+      try {
+        full.put(END);
+        writer.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for output to be written");
+      }
+      out.close();
+    }
+    checkError();
+  }
+
+  /**
+   * @return How often the writing thread waited for the I/O thread to free a buffer.
+   */
+  Stalls writerStalls() {
+    return writerStalls;
+  }
+
+  /**
+   * @return How often the I/O thread waited for the writing thread to fill a buffer. Waits before
+   *     the first buffer and after the last are included.
+   */
+  Stalls ioStalls() {
+    return ioStalls;
+  }
+
+  private void handOff(boolean flush) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    checkError();
+    current.flush = flush;
+    try {
+      full.put(current);
+      current = take(free, writerStalls);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a free output buffer");
+    }
+  }
+
+  private void checkError() throws IOException {
+    if (error != null) {
+      throw new IOException("Failed to write output", error);
+    }
+  }
+
+  private void drain() {
+    try {
+      for (Buffer buffer = take(full, ioStalls); buffer != END; buffer = take(full, ioStalls)) {
+        if (error == null) {
+          try {
+            out.write(buffer.data, 0, buffer.length);
+            if (buffer.flush) {
+              out.flush();
+            }
+          } catch (IOException | RuntimeException e) {
+            // Keep recycling buffers, so the writing thread never waits forever
+            error = e;
+          }
+        }
+        buffer.length = 0;
+        free.put(buffer);
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Buffer take(BlockingQueue<Buffer> queue, Stalls stalls) throws InterruptedException {
+    Buffer buffer = queue.poll();
+    if (buffer != null) {
+      return buffer;
+    }
+    long start = System.nanoTime();
+    buffer = queue.take();
+    stalls.record(System.nanoTime() - start);
+    return buffer;
+  }
+
+  /**
+   * The number and total duration of one side's waits for the other. Updated by one thread only,
+   * and safe to read from any.
+   */
+  static final class Stalls {
+    private volatile long count;
+    private volatile long nanos;
+
+    private void record(long waited) {
+      count++;
+      nanos += waited;
+    }
+
+    long count() {
+      return count;
+    }
+
+    long millis() {
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d times (%d ms)", count, millis());
+    }
+  }
+
+  private static final class Buffer {
+    private final byte[] data;
+    private int length;
+    private boolean flush;
+
+    Buffer(int size) {
+      this.data = new byte[size];
+    }
+  }
+}
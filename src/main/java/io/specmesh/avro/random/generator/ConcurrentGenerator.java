@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Generator} that can be shared between threads, for example by a pool of producer
+ * threads all sending records for the same schema.
+ *
+ * <p>Each thread lazily gets its own compiled {@link Generator}, with its own stream of random
+ * numbers. Parsed {@value Generator#OPTIONS_PROP} are shared, so options files are read only once.
+ * Iteration stays global: every call claims the next generation number from a shared counter, so
+ * across all threads each {@value Generator#ITERATION_PROP} value is produced exactly once, just as
+ * a single generator would produce it. Which thread receives which generation is up to the
+ * scheduler. A {@link Generator.Builder#keyspace(String, long) keyspace} is likewise shared, so all
+ * threads draw from the same set of keys, and every thread's {@value Generator#CLOCK_PROP} starts
+ * from the same instant.
+ *
+ * <p>Built by {@link Generator.Builder#buildConcurrent()}.
+ */
+public final class ConcurrentGenerator {
+
+  private final Schema topLevelSchema;
+  private final Supplier<Random> randoms;
+  private final Map<Schema, List<Object>> optionsCache = new ConcurrentHashMap<>();
+  private final AtomicLong nextGeneration;
+  private final ThreadLocal<Generator> generators;
+  private final boolean iterates;
+  private final Keyspace keyspace;
+  private final long clockEpoch;
+
+  ConcurrentGenerator(
+      Schema topLevelSchema,
+      RandomAlgorithm algorithm,
+      long seed,
+      long generation,
+      Keyspace keyspace,
+      long clockEpoch) {
+    this.topLevelSchema = topLevelSchema;
+    this.keyspace = keyspace;
+    this.clockEpoch = clockEpoch;
+    this.randoms = algorithm.streams(seed);
+    this.nextGeneration = new AtomicLong(generation);
+    // Compiling one generator up front surfaces schema errors on construction, on the calling thread
+    Generator first = newGenerator();
+    this.iterates = first.iterates();
+    this.generators = ThreadLocal.withInitial(this::newGenerator);
+    this.generators.set(first);
+  }
+
+  private Generator newGenerator() {
+    Random random;
+    synchronized (randoms) {
+      random = randoms.get();
+    }
+    return new Generator(topLevelSchema, random, 0L, optionsCache, keyspace, clockEpoch);
+  }
+
+  /**
+   * @return The schema that the generator produces values for.
+   */
+  public Schema schema() {
+    return topLevelSchema;
+  }
+
+  /**
+   * @return A newly generated value, as documented on {@link Generator#generate()}.
+   */
+  public Object generate() {
+    return claim(1).generate();
+  }
+
+  /**
+   * Generates {@code n} values with consecutive generation numbers, as documented on
+   * {@link Generator#generate(int, Object[])}.
+   * @param n The number of values to generate.
+   * @param out The array to store the values in; must hold at least {@code n} elements.
+   */
+  public void generate(int n, Object[] out) {
+    claim(n).generate(n, out);
+  }
+
+  /**
+   * Generates a value straight to the given encoder, as documented on
+   * {@link Generator#write(BinaryEncoder)}.
+   * @param encoder The encoder to write the generated value to.
+   * @throws IOException if the encoder fails to write.
+   */
+  public void write(BinaryEncoder encoder) throws IOException {
+    claim(1).write(encoder);
+  }
+
+  private Generator claim(int count) {
+    Generator generator = generators.get();
+    if (iterates) {
+      generator.seek(nextGeneration.getAndAdd(count));
+    }
+    return generator;
+  }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryEncoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generators for the decimal logical type, on bytes or fixed schemas.
+ *
+ * <p>Decimals of up to {@value #MAX_LONG_PRECISION} digits, nearly all money fields among them,
+ * are generated as a primitive {@code long} unscaled value, whose two's-complement bytes are
+ * written straight into a reused buffer. Only wider decimals go through {@link BigInteger}.
+ */
+final class DecimalGenerators {
+  static final int MAX_LONG_PRECISION = 18;
+
+  private static final long[] POWERS_OF_TEN = new long[MAX_LONG_PRECISION + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private DecimalGenerators() {
+  }
+
+  /**
+   * @param random The randomness to generate values with.
+   * @param fixedSchema The fixed schema to generate values for, or null for bytes.
+   * @param decimal The schema's decimal logical type.
+   * @param propertiesProp The schema's {@value Generator#ARG_PROPERTIES_PROP}.
+   * @return A generator for the decimal, within its {@value Generator#RANGE_PROP} if one is given.
+   */
+  static ValueGenerator compile(
+      Random random,
+      Schema fixedSchema,
+      LogicalTypes.Decimal decimal,
+      Map propertiesProp) {
+    int precision = decimal.getPrecision();
+    int scale = decimal.getScale();
+    Object rangeProp = propertiesProp.get(Generator.RANGE_PROP);
+    if (rangeProp == null) {
+      return precision <= MAX_LONG_PRECISION
+          ? new LongDecimalGenerator(random, fixedSchema, precision)
+          : new WideDecimalGenerator(random, fixedSchema, precision, scale);
+    }
+    if (!(rangeProp instanceof Map)) {
+      throw new RuntimeException(String.format(
+          "%s property must be an object",
+          Generator.RANGE_PROP
+      ));
+    }
+    Map rangeProps = (Map) rangeProp;
+    Double rangeMinField = getNumberField(rangeProps, Generator.RANGE_PROP_MIN);
+    Double rangeMaxField = getNumberField(rangeProps, Generator.RANGE_PROP_MAX);
+    double rangeMin = rangeMinField != null ? rangeMinField : -1 * Math.pow(10, precision - scale);
+    double rangeMax = rangeMaxField != null ? rangeMaxField : Math.pow(10, precision - scale);
+    if (!(rangeMin < rangeMax)) {
+      throw new RuntimeException(String.format(
+          "'%s' field must be strictly less than '%s' field in %s property",
+          Generator.RANGE_PROP_MIN,
+          Generator.RANGE_PROP_MAX,
+          Generator.RANGE_PROP
+      ));
+    }
+    BigInteger min = unscaledCeiling(rangeMin, scale);
+    BigInteger max = unscaledCeiling(rangeMax, scale);
+    BigInteger span = max.subtract(min);
+    if (min.bitLength() < Long.SIZE && max.bitLength() < Long.SIZE && span.bitLength() < Long.SIZE) {
+      if (span.signum() == 0) {
+        throw new RuntimeException(String.format(
+            "%s property contains no decimals of scale %d",
+            Generator.RANGE_PROP,
+            scale
+        ));
+      }
+      if (fixedSchema != null
+          && Math.max(byteLength(min.longValue()), byteLength(max.longValue() - 1)) > fixedSchema.getFixedSize()) {
+        throw new RuntimeException(String.format(
+            "%s property does not fit in the %d bytes of fixed schema %s",
+            Generator.RANGE_PROP,
+            fixedSchema.getFixedSize(),
+            fixedSchema.getFullName()
+        ));
+      }
+      return new LongDecimalGenerator(random, fixedSchema, min.longValue(), span.longValue());
+    }
+    return new WideDecimalGenerator(random, fixedSchema, precision, scale, rangeMin, rangeMax);
+  }
+
+  /**
+   * @return The smallest unscaled value of the given scale that is at least {@code value}.
+   */
+  private static BigInteger unscaledCeiling(double value, int scale) {
+    return BigDecimal.valueOf(value)
+        .scaleByPowerOfTen(scale)
+        .setScale(0, RoundingMode.CEILING)
+        .toBigIntegerExact();
+  }
+
+  private static Double getNumberField(Map rangeProps, String field) {
+    Object result = rangeProps.get(field);
+    if (result == null) {
+      return null;
+    }
+    if (!(result instanceof Number)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be a number, was %s instead",
+          field,
+          Generator.RANGE_PROP,
+          result.getClass().getName()
+      ));
+    }
+    return ((Number) result).doubleValue();
+  }
+
+  /**
+   * @return The length of the shortest two's-complement representation of {@code value}, as
+   *     {@link BigInteger#toByteArray()} would give it.
+   */
+  static int byteLength(long value) {
+    return (Long.SIZE - Long.numberOfLeadingZeros(value ^ (value >> 63))) / 8 + 1;
+  }
+
+  /**
+   * Generates unscaled values as longs. Unbounded values are drawn exactly as
+   * {@link WideDecimalGenerator} draws them, so a decimal comes out the same whichever generator
+   * produces it; ranged values are uniform over the unscaled values in the range.
+   */
+  static final class LongDecimalGenerator implements ValueGenerator {
+    private static final int DIGITS_PER_DRAW = 15;
+    private static final double DRAW_BOUND = 1e15;
+
+    private final Random random;
+    private final Schema fixedSchema;
+    private final int precision;
+    private final boolean ranged;
+    private final long min;
+    private final long span;
+    private final byte[] buffer;
+
+    LongDecimalGenerator(Random random, Schema fixedSchema, int precision) {
+      this(random, fixedSchema, precision, false, 0, 0);
+    }
+
+    LongDecimalGenerator(Random random, Schema fixedSchema, long min, long span) {
+      this(random, fixedSchema, 0, true, min, span);
+    }
+
+    private LongDecimalGenerator(
+        Random random,
+        Schema fixedSchema,
+        int precision,
+        boolean ranged,
+        long min,
+        long span) {
+      this.random = random;
+      this.fixedSchema = fixedSchema;
+      this.precision = precision;
+      this.ranged = ranged;
+      this.min = min;
+      this.span = span;
+      this.buffer = new byte[Math.max(Long.BYTES, fixedSchema != null ? fixedSchema.getFixedSize() : 0)];
+    }
+
+    @Override
+    public Object generate() {
+      int length = fill(nextUnscaled());
+      byte[] bytes = Arrays.copyOfRange(buffer, buffer.length - length, buffer.length);
+      return fixedSchema != null ? new GenericData.Fixed(fixedSchema, bytes) : ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      int length = fill(nextUnscaled());
+      if (fixedSchema != null) {
+        encoder.writeFixed(buffer, buffer.length - length, length);
+      } else {
+        encoder.writeBytes(buffer, buffer.length - length, length);
+      }
+    }
+
+    /**
+     * Writes the big-endian two's complement of {@code unscaled} to the end of the buffer, sign
+     * extended across all of it, so that it also fills a fixed schema of any size.
+     * @return The number of bytes written.
+     */
+    private int fill(long unscaled) {
+      long remaining = unscaled;
+      for (int i = buffer.length - 1; i >= 0; i--) {
+        buffer[i] = (byte) remaining;
+        remaining >>= 8;
+      }
+      return fixedSchema != null ? fixedSchema.getFixedSize() : byteLength(unscaled);
+    }
+
+    private long nextUnscaled() {
+      if (ranged) {
+        return min + Distribution.uniform(random, span);
+      }
+      long unscaled = (long) (random.nextDouble() * DRAW_BOUND);
+      if (precision <= DIGITS_PER_DRAW) {
+        unscaled /= POWERS_OF_TEN[DIGITS_PER_DRAW - precision];
+      } else {
+        long low = (long) (random.nextDouble() * DRAW_BOUND);
+        unscaled = unscaled * POWERS_OF_TEN[precision - DIGITS_PER_DRAW]
+            + low / POWERS_OF_TEN[2 * DIGITS_PER_DRAW - precision];
+      }
+      return random.nextBoolean() ? -unscaled : unscaled;
+    }
+  }
+
+  /**
+   * Generates unscaled values of any precision as {@link BigInteger}s.
+   */
+  static final class WideDecimalGenerator implements ValueGenerator {
+    private static final long MAX_INCREMENT_EXCLUSIVE = 1_000_000_000_000_000L;
+
+    private final Random random;
+    private final Schema fixedSchema;
+    private final int precision;
+    private final int scale;
+    private final boolean ranged;
+    private final double rangeMin;
+    private final double rangeMax;
+    private final BigInteger precisionDivisor;
+
+    WideDecimalGenerator(Random random, Schema fixedSchema, int precision, int scale) {
+      this(random, fixedSchema, precision, scale, false, 0, 0);
+    }
+
+    WideDecimalGenerator(
+        Random random,
+        Schema fixedSchema,
+        int precision,
+        int scale,
+        double rangeMin,
+        double rangeMax) {
+      this(random, fixedSchema, precision, scale, true, rangeMin, rangeMax);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private WideDecimalGenerator(
+        Random random,
+        Schema fixedSchema,
+        int precision,
+        int scale,
+        boolean ranged,
+        double rangeMin,
+        double rangeMax) {
+      this.random = random;
+      this.fixedSchema = fixedSchema;
+      this.precision = precision;
+      this.scale = scale;
+      this.ranged = ranged;
+      this.rangeMin = rangeMin;
+      this.rangeMax = rangeMax;
+      int generatedPrecision = ((precision + 14) / 15) * 15;
+      this.precisionDivisor = BigInteger.TEN.pow(generatedPrecision - precision);
+    }
+
+    @Override
+    public Object generate() {
+      byte[] bytes = generateBytes();
+      return fixedSchema != null ? new GenericData.Fixed(fixedSchema, bytes) : ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      byte[] bytes = generateBytes();
+      if (fixedSchema != null) {
+        encoder.writeFixed(bytes);
+      } else {
+        encoder.writeBytes(bytes);
+      }
+    }
+
+    private byte[] generateBytes() {
+      byte[] unscaled = ranged ? generateInRange() : generateUnbounded();
+      if (fixedSchema == null || unscaled.length >= fixedSchema.getFixedSize()) {
+        return unscaled;
+      }
+      byte[] result = new byte[fixedSchema.getFixedSize()];
+      int padding = result.length - unscaled.length;
+      Arrays.fill(result, 0, padding, unscaled[0] < 0 ? (byte) -1 : 0);
+      System.arraycopy(unscaled, 0, result, padding, unscaled.length);
+      return result;
+    }
+
+    private byte[] generateInRange() {
+      // We'll just generate a random double in the requested range and then convert it to a logical decimal type
+      double result = rangeMin + (random.nextDouble() * (rangeMax - rangeMin));
+      return BigDecimal.valueOf(result)
+          // Adjust by the scale of the decimal type in order to get the "unscaled" value described below before
+          // converting to a twos-complement byte array
+          .scaleByPowerOfTen(scale)
+          .toBigInteger()
+          .toByteArray();
+    }
+
+    private byte[] generateUnbounded() {
+      /*
+        According to the Avro 1.9.1 spec (http://avro.apache.org/docs/1.9.1/spec.html#Decimal):
+
+        "The decimal logical type represents an arbitrary-precision signed decimal number of the form
+      unscaled × 10-scale.
+
+        "A decimal logical type annotates Avro bytes or fixed types. The byte array must contain the
+      two's-complement representation of the unscaled integer value in big-endian byte order. The scale
+      is fixed, and is specified using an attribute."
+
+        We generate a random decimal here by starting with a value of zero, then repeatedly multiplying
+      by 10^15 (15 is the minimum number of significant digits in a double), and adding a new random
+      value in the range [0, 10^15) generated using the Random object for this generator. This is done
+      until the precision of the current value is equal to or greater than the precision of the logical
+      type. At this point, any extra digits (of there should be at most 14) are rounded off from the
+      value, a sign is randomly selected, it is converted to big-endian two's-complement representation,
+      and returned.
+       */
+      BigInteger bigInteger = BigInteger.ZERO;
+      for (int generated = 0; generated < precision; generated += 15) {
+        bigInteger = bigInteger.multiply(BigInteger.valueOf(MAX_INCREMENT_EXCLUSIVE));
+        long increment = (long) (random.nextDouble() * MAX_INCREMENT_EXCLUSIVE);
+        bigInteger = bigInteger.add(BigInteger.valueOf(increment));
+      }
+      bigInteger = bigInteger.divide(precisionDivisor);
+      if (random.nextBoolean()) {
+        bigInteger = bigInteger.negate();
+      }
+      return bigInteger.toByteArray();
+    }
+  }
+}
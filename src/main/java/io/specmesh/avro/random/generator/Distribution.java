@@ -0,0 +1,284 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A distribution over the indices {@code 0} to {@code size - 1} of a discrete domain, such as a
+ * set of options or the values of an integral range, from which every sample takes constant
+ * expected time however large the domain is. Index zero is the most likely for the skewed
+ * distributions, so the first options, or the lowest values, are the hot keys.
+ */
+abstract class Distribution {
+  static final String TYPE = "type";
+  static final String ZIPF = "zipf";
+  static final String NORMAL = "normal";
+  static final String EXPONENTIAL = "exponential";
+  static final String HOTSPOT = "hotspot";
+  static final String EXPONENT = "exponent";
+  static final String MEAN = "mean";
+  static final String STDDEV = "stddev";
+  static final String HOT = "hot";
+  static final String ODDS = "odds";
+
+  /**
+   * @return A random index, from zero to one less than the size of the domain.
+   */
+  abstract long sample(Random random);
+
+  /**
+   * Parses a {@value Generator#DISTRIBUTION_PROP} property, given as an object with a
+   * {@value #TYPE} field and the parameters of that type of distribution:
+   * <ul>
+   *   <li>{@value #ZIPF}: {@value #EXPONENT} (defaults to 1)</li>
+   *   <li>{@value #NORMAL}: {@value #MEAN} and {@value #STDDEV}, as indices (default to the middle
+   *   of the domain and a sixth of its size)</li>
+   *   <li>{@value #EXPONENTIAL}: {@value #MEAN}, as an index (defaults to a tenth of the size of the
+   *   domain)</li>
+   *   <li>{@value #HOTSPOT}: {@value #HOT}, the fraction of the domain that is hot (defaults to
+   *   0.2), and {@value #ODDS}, the chance of picking from the hot part (defaults to 0.8)</li>
+   * </ul>
+   * @param distributionProp The property.
+   * @param size The size of the domain.
+   * @return The distribution.
+   */
+  static Distribution parse(Object distributionProp, long size) {
+    if (!(distributionProp instanceof Map)) {
+      throw new RuntimeException(String.format(
+          "%s property must be an object",
+          Generator.DISTRIBUTION_PROP
+      ));
+    }
+    Map distributionProps = (Map) distributionProp;
+    Object type = distributionProps.get(TYPE);
+    if (ZIPF.equals(type)) {
+      return new Zipf(size, getParameter(distributionProps, EXPONENT, 1));
+    } else if (NORMAL.equals(type)) {
+      return new Normal(
+          size,
+          getParameter(distributionProps, MEAN, size / 2.0, true),
+          getParameter(distributionProps, STDDEV, size / 6.0)
+      );
+    } else if (EXPONENTIAL.equals(type)) {
+      return new Exponential(size, getParameter(distributionProps, MEAN, size / 10.0));
+    } else if (HOTSPOT.equals(type)) {
+      double hot = getParameter(distributionProps, HOT, 0.2);
+      double odds = getParameter(distributionProps, ODDS, 0.8);
+      if (hot > 1 || odds > 1) {
+        throw new RuntimeException(String.format(
+            "'%s' and '%s' fields of %s property must be at most 1",
+            HOT,
+            ODDS,
+            Generator.DISTRIBUTION_PROP
+        ));
+      }
+      return new Hotspot(size, hot, odds);
+    }
+    throw new RuntimeException(String.format(
+        "'%s' field of %s property must be one of '%s', '%s', '%s' or '%s', was '%s' instead",
+        TYPE,
+        Generator.DISTRIBUTION_PROP,
+        ZIPF,
+        NORMAL,
+        EXPONENTIAL,
+        HOTSPOT,
+        type
+    ));
+  }
+
+  private static double getParameter(Map distributionProps, String field, double defaultValue) {
+    return getParameter(distributionProps, field, defaultValue, false);
+  }
+
+  /**
+   * @param zeroAllowed Whether the parameter may be zero, such as a mean that centres a
+   *     distribution on index zero, the hot end of the domain.
+   */
+  private static double getParameter(
+      Map distributionProps,
+      String field,
+      double defaultValue,
+      boolean zeroAllowed) {
+    Object value = distributionProps.get(field);
+    if (value == null) {
+      return defaultValue;
+    }
+    double parameter = value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    boolean inRange = zeroAllowed ? parameter >= 0 : parameter > 0;
+    if (!inRange || Double.isInfinite(parameter)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be a %s number, was '%s' instead",
+          field,
+          Generator.DISTRIBUTION_PROP,
+          zeroAllowed ? "non-negative" : "positive",
+          value
+      ));
+    }
+    return parameter;
+  }
+
+  /**
+   * @return A uniformly random value from zero to one less than {@code bound}.
+   */
+  static long uniform(Random random, long bound) {
+    if (bound <= Integer.MAX_VALUE) {
+      return random.nextInt((int) bound);
+    }
+    long limit = Long.MAX_VALUE - Long.MAX_VALUE % bound;
+    long bits;
+    do {
+      bits = random.nextLong() >>> 1;
+    } while (bits >= limit);
+    return bits % bound;
+  }
+
+  /**
+   * Zipf's law: index {@code k} is picked with probability proportional to
+   * {@code 1 / (k + 1)^exponent}. Sampled by rejection-inversion (Hörmann and Derflinger, 1996),
+   * which needs no table and accepts almost every candidate.
+   */
+  static final class Zipf extends Distribution {
+    private final long size;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double threshold;
+
+    Zipf(long size, double exponent) {
+      this.size = size;
+      this.exponent = exponent;
+      this.hIntegralX1 = hIntegral(1.5) - 1;
+      this.hIntegralN = hIntegral(size + 0.5);
+      this.threshold = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    @Override
+    long sample(Random random) {
+      while (true) {
+        double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+        double x = hIntegralInverse(u);
+        long k = Math.max(1, Math.min(size, (long) (x + 0.5)));
+        if (k - x <= threshold || u >= hIntegral(k + 0.5) - h(k)) {
+          return k - 1;
+        }
+      }
+    }
+
+    private double h(double x) {
+      return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+      double logX = Math.log(x);
+      return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+      double t = Math.max(-1, x * (1 - exponent));
+      return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double expm1OverX(double x) {
+      return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x / 2 * (1 + x / 3 * (1 + x / 4));
+    }
+
+    private static double log1pOverX(double x) {
+      return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+  }
+
+  /**
+   * A normal distribution rounded to the nearest index, redrawn when it falls outside the domain.
+   */
+  static final class Normal extends Distribution {
+    private final long size;
+    private final double mean;
+    private final double stddev;
+
+    Normal(long size, double mean, double stddev) {
+      if (mean >= size) {
+        throw new RuntimeException(String.format(
+            "'%s' field of %s property must be less than %d",
+            MEAN,
+            Generator.DISTRIBUTION_PROP,
+            size
+        ));
+      }
+      this.size = size;
+      this.mean = mean;
+      this.stddev = stddev;
+    }
+
+    @Override
+    long sample(Random random) {
+      while (true) {
+        double x = Math.rint(mean + stddev * random.nextGaussian());
+        if (x >= 0 && x < size) {
+          return (long) x;
+        }
+      }
+    }
+  }
+
+  /**
+   * An exponential distribution truncated to the domain and sampled by inversion, so that every
+   * draw lands inside it.
+   */
+  static final class Exponential extends Distribution {
+    private final long size;
+    private final double mean;
+    private final double coverage;
+
+    Exponential(long size, double mean) {
+      this.size = size;
+      this.mean = mean;
+      this.coverage = -Math.expm1(-size / mean);
+    }
+
+    @Override
+    long sample(Random random) {
+      double x = -mean * Math.log1p(-random.nextDouble() * coverage);
+      return Math.min(size - 1, (long) x);
+    }
+  }
+
+  /**
+   * Picks uniformly from the first, hot, part of the domain with the given odds, and uniformly from
+   * the rest of it otherwise.
+   */
+  static final class Hotspot extends Distribution {
+    private final long hotSize;
+    private final long coldSize;
+    private final double odds;
+
+    Hotspot(long size, double hot, double odds) {
+      this.hotSize = Math.max(1, Math.min(size, (long) Math.ceil(size * hot)));
+      this.coldSize = size - hotSize;
+      this.odds = odds;
+    }
+
+    @Override
+    long sample(Random random) {
+      if (coldSize == 0 || random.nextDouble() < odds) {
+        return uniform(random, hotSize);
+      }
+      return hotSize + uniform(random, coldSize);
+    }
+  }
+}
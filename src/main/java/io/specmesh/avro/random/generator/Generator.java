@@ -16,8 +16,6 @@
 
 package io.specmesh.avro.random.generator;
 
-import com.mifmif.common.regex.Generex;
-
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import org.apache.avro.LogicalType;
@@ -26,11 +24,9 @@ import org.apache.avro.Schema;
 
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericEnumSymbol;
-import org.apache.avro.generic.GenericFixed;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.GenericRecordBuilder;
 
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
@@ -44,7 +40,7 @@ import java.io.InputStream;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -64,9 +60,9 @@ import java.util.Random;
 @SuppressWarnings("WeakerAccess")
 public class Generator {
 
-  private final Map<Schema, Generex> generexCache = new HashMap<>();
-  private final Map<Schema, List<Object>> optionsCache = new HashMap<>();
-  private final Map<Schema, Iterator<Object>> iteratorCache = new IdentityHashMap<>();
+  private final Map<Schema, List<Object>> optionsCache;
+  private final Map<Schema, ValueGenerator> compiledCache = new IdentityHashMap<>();
+  private final List<SeekableIterator> iterators = new ArrayList<>();
 
   /**
    * The name to use for the top-level JSON property when specifying ARG-specific attributes.
@@ -111,6 +107,13 @@ public class Generator {
    */
   public static final String SUFFIX_PROP = "suffix";
 
+  /**
+   * The name of the attribute for restricting generated strings to printable ASCII characters,
+   * from space to tilde, so that they can be written to text sinks as-is. Must be given as a
+   * boolean, and cannot be used in conjunction with {@link #REGEX_PROP}.
+   */
+  public static final String PRINTABLE_PROP = "printable";
+
   /**
    * The name of the attribute for specifying specific values which should be randomly chosen from
    * when generating values for the schema. Can be given as either an array of values or an object
@@ -128,6 +131,36 @@ public class Generator {
    * given as a string.
    */
   public static final String OPTIONS_PROP_ENCODING = "encoding";
+  /**
+   * Whether to memory-map the options file instead of decoding it up front; only supported for the
+   * "binary" encoding. Options are then decoded only when picked, so the file can be larger than
+   * the heap. Must be given as a boolean.
+   */
+  public static final String OPTIONS_PROP_MAPPED = "mapped";
+  /**
+   * The number of decoded options to keep when {@link #OPTIONS_PROP_MAPPED} is set, so that
+   * frequently picked options are not decoded every time. Must be given as a non-negative integer.
+   */
+  public static final String OPTIONS_PROP_CACHE = "cache";
+  /**
+   * The name of the attribute for weighting the {@link #OPTIONS_PROP} that values are chosen from,
+   * so that some options are picked more often than others. Must be given as an array of
+   * non-negative numbers, one for each option, that are not all zero.
+   */
+  public static final String WEIGHTS_PROP = "weights";
+  /**
+   * The name of the attribute for skewing the values generated for int and long schemas, or the
+   * {@link #OPTIONS_PROP} picked, towards the lowest values or first options, for example to
+   * reproduce hot keys. Must be given as an object with a "type" field of "zipf", "normal",
+   * "exponential" or "hotspot", and that distribution's parameters; see {@link Distribution}.
+   * Cannot be used in conjunction with {@link #WEIGHTS_PROP}.
+   */
+  public static final String DISTRIBUTION_PROP = "distribution";
+  /**
+   * The name of the attribute for generating date, time and timestamp logical types from a logical
+   * clock that advances with every value instead of uniformly. See {@link LogicalTypeGenerators}.
+   */
+  public static final String CLOCK_PROP = "clock";
 
   /**
    * The name of the attribute for specifying special properties for keys in map schemas. Since
@@ -200,6 +233,8 @@ public class Generator {
   private final Schema topLevelSchema;
   private final Random random;
   private final long generation;
+  private final long clockEpoch;
+  private final ValueGenerator root;
 
   /**
    * Creates a generator out of an already-parsed {@link Schema}.
@@ -212,9 +247,30 @@ public class Generator {
   }
 
   protected Generator(Schema topLevelSchema, Random random, long generation) {
+    this(topLevelSchema, random, generation, new HashMap<>(), null, System.currentTimeMillis());
+  }
+
+  /**
+   * @param optionsCache Parsed {@value #OPTIONS_PROP}, by schema. Generators that share this map,
+   *     which must then be thread-safe, read each options file only once between them.
+   * @param keyspace The keyspace to draw the top-level record's key from, or null for none.
+   * @param clockEpoch The wall-clock time, in epoch milliseconds, that a {@value #CLOCK_PROP}
+   *     starting now starts at. Generators that share it keep their clocks in step.
+   */
+  Generator(
+      Schema topLevelSchema,
+      Random random,
+      long generation,
+      Map<Schema, List<Object>> optionsCache,
+      Keyspace keyspace,
+      long clockEpoch) {
     this.topLevelSchema = topLevelSchema;
     this.random = random;
     this.generation = generation;
+    this.optionsCache = optionsCache;
+    this.clockEpoch = clockEpoch;
+    ValueGenerator compiled = compile(topLevelSchema);
+    this.root = keyspace != null ? keyspace.apply(topLevelSchema, compiled, random, optionsCache) : compiled;
   }
 
   /**
@@ -253,7 +309,14 @@ public class Generator {
 
     private Schema topLevelSchema;
     private Random random;
+    private RandomAlgorithm algorithm;
+    private long seed;
     private long generation;
+    private String keyField;
+    private long keyCardinality;
+    private Keyspace keyspace;
+    // Read once, so that everything this builder builds shares the same now
+    private long clockEpoch = System.currentTimeMillis();
     private Schema.Parser parser;
 
     public Builder() {
@@ -284,6 +347,21 @@ public class Generator {
 
     public Builder random(Random random) {
       this.random = random;
+      this.algorithm = null;
+      return this;
+    }
+
+    /**
+     * Uses a new pseudo-random number generator of the given algorithm instead of the default
+     * {@link Random}.
+     * @param algorithm The pseudo-random number generator to use.
+     * @param seed The seed for the generator.
+     * @return This builder.
+     */
+    public Builder random(RandomAlgorithm algorithm, long seed) {
+      this.random = algorithm.create(seed);
+      this.algorithm = algorithm;
+      this.seed = seed;
       return this;
     }
 
@@ -292,8 +370,57 @@ public class Generator {
       return this;
     }
 
+    /**
+     * Draws the value of the top-level record's field {@code field} from a fixed set of
+     * {@code cardinality} keys, so that records repeat keys as updates would. Keys are derived on
+     * demand from a random index, so none are held in memory; plain int, long and string fields
+     * get exactly {@code cardinality} distinct keys.
+     * @param field The name of the key field.
+     * @param cardinality The number of distinct keys to draw from.
+     * @return This builder.
+     */
+    public Builder keyspace(String field, long cardinality) {
+      this.keyField = field;
+      this.keyCardinality = cardinality;
+      this.keyspace = null;
+      return this;
+    }
+
+    Builder keyspace(Keyspace keyspace) {
+      this.keyField = null;
+      this.keyspace = keyspace;
+      return this;
+    }
+
+    // Resolved once, so that everything this builder builds shares the same keys
+    private Keyspace resolveKeyspace() {
+      if (keyspace == null && keyField != null) {
+        keyspace = new Keyspace(keyField, keyCardinality, algorithm != null ? seed : random.nextLong());
+      }
+      return keyspace;
+    }
+
+    // Starts every clock at the given now, to keep generators built separately in step
+    Builder clockEpoch(long epochMillis) {
+      this.clockEpoch = epochMillis;
+      return this;
+    }
+
     public Generator build() {
-      return new Generator(topLevelSchema, random, generation);
+      return new Generator(topLevelSchema, random, generation, new HashMap<>(), resolveKeyspace(), clockEpoch);
+    }
+
+    /**
+     * Builds a generator that may be shared between threads. Each thread generates with its own
+     * stream of the configured {@link RandomAlgorithm}, seeded from the configured seed; if a
+     * plain {@link Random} was configured instead, {@link RandomAlgorithm#JDK} streams are seeded
+     * from it.
+     * @return A new thread-safe generator.
+     */
+    public ConcurrentGenerator buildConcurrent() {
+      RandomAlgorithm streams = algorithm != null ? algorithm : RandomAlgorithm.JDK;
+      long streamSeed = algorithm != null ? seed : random.nextLong();
+      return new ConcurrentGenerator(topLevelSchema, streams, streamSeed, generation, resolveKeyspace(), clockEpoch);
     }
   }
 
@@ -326,10 +453,10 @@ public class Generator {
    *     <td>{@link Double}</td>
    *   <tr>
    *     <td>{@link org.apache.avro.Schema.Type#ENUM ENUM}</td>
-   *     <td>{@link GenericEnumSymbol}</td>
+   *     <td>{@link org.apache.avro.generic.GenericEnumSymbol}</td>
    *   <tr>
    *     <td>{@link org.apache.avro.Schema.Type#FIXED FIXED}</td>
-   *     <td>{@link GenericFixed}</td>
+   *     <td>{@link org.apache.avro.generic.GenericFixed}</td>
    *   <tr>
    *     <td>{@link org.apache.avro.Schema.Type#FLOAT FLOAT}</td>
    *     <td>{@link Float}</td>
@@ -350,7 +477,7 @@ public class Generator {
    *     <td>{@link Object} (but will always be null)</td>
    *   <tr>
    *     <td>{@link org.apache.avro.Schema.Type#RECORD RECORD}</td>
-   *     <td>{@link GenericRecord}</td>
+   *     <td>{@link org.apache.avro.generic.GenericRecord}</td>
    *   <tr>
    *     <td>{@link org.apache.avro.Schema.Type#STRING STRING}</td>
    *     <td>{@link String}</td>
@@ -363,51 +490,160 @@ public class Generator {
    * </table>
    */
   public Object generate() {
-    return generateObject(topLevelSchema);
+    return root.generate();
   }
 
-  private Object generateObject(Schema schema) {
+  /**
+   * Generates {@code n} values, as if by {@code n} calls to {@link #generate()}, into the start of
+   * {@code out}.
+   * @param n The number of values to generate.
+   * @param out The array to store the values in; must hold at least {@code n} elements.
+   */
+  public void generate(int n, Object[] out) {
+    if (n > out.length) {
+      throw new RuntimeException(String.format(
+          "Cannot generate %d values into an array of length %d",
+          n,
+          out.length
+      ));
+    }
+    ValueGenerator root = this.root;
+    for (int i = 0; i < n; i++) {
+      out[i] = root.generate();
+    }
+  }
+
+  /**
+   * @param n The number of values to generate.
+   * @return A new array of {@code n} values, as generated by {@link #generate(int, Object[])}.
+   */
+  public Object[] generateBatch(int n) {
+    Object[] result = new Object[n];
+    generate(n, result);
+    return result;
+  }
+
+  /**
+   * Generates a value exactly as {@link #generate()} would, but writes it straight to the given
+   * encoder instead of building it as Java objects first. Records, boxed primitives, strings and
+   * byte buffers are never materialized (apart from map values, whose keys must be de-duplicated),
+   * which makes this the cheapest way to produce Avro binary data.
+   * @param encoder The encoder to write the generated value to.
+   * @throws IOException if the encoder fails to write.
+   */
+  public void write(BinaryEncoder encoder) throws IOException {
+    root.write(encoder);
+  }
+
+  /**
+   * @return Whether any values are produced by {@value #ITERATION_PROP}, and so depend on how many
+   *     values have been generated before.
+   */
+  boolean iterates() {
+    return !iterators.isEmpty();
+  }
+
+  /**
+   * @return The property that values depending on the generation come from, if {@link #iterates()}.
+   */
+  String iterationProp() {
+    return iterators.stream().anyMatch(LogicalTypeGenerators.Clock.class::isInstance) ? CLOCK_PROP : ITERATION_PROP;
+  }
+
+  /**
+   * Moves all iteration state to where it would be had {@code generation} values already been
+   * generated, exactly as if this generator had been built with that generation. Randomly
+   * generated values are unaffected.
+   * @param generation The number of values to treat as previously generated.
+   */
+  void seek(long generation) {
+    for (SeekableIterator iterator : iterators) {
+      iterator.seek(generation);
+    }
+  }
+
+  private ValueGenerator compile(Schema schema) {
+    ValueGenerator compiled = compiledCache.get(schema);
+    if (compiled == null) {
+      compiled = compileSchema(schema);
+      compiledCache.put(schema, compiled);
+    }
+    return compiled;
+  }
+
+  private ValueGenerator compileSchema(Schema schema) {
     Map propertiesProp = getProperties(schema).orElse(Collections.emptyMap());
     if (propertiesProp.containsKey(OPTIONS_PROP)) {
-      return generateOption(schema, propertiesProp);
+      return compileOptions(schema, schema, propertiesProp);
     }
+    enforceOptionsProps(schema, propertiesProp);
     if (propertiesProp.containsKey(ITERATION_PROP)) {
-      return generateIteration(schema, propertiesProp);
+      return compileIteration(schema, propertiesProp);
+    }
+    ValueGenerator logical = LogicalTypeGenerators.compile(schema, propertiesProp, random, iterators, generation, clockEpoch);
+    if (logical != null) {
+      return logical;
     }
     switch (schema.getType()) {
       case ARRAY:
-        return generateArray(schema, propertiesProp);
+        return new ValueGenerators.ArrayGenerator(
+            random,
+            getLengthBounds(propertiesProp),
+            compile(schema.getElementType())
+        );
       case BOOLEAN:
-        return generateBoolean(propertiesProp);
+        return compileBoolean(propertiesProp);
       case BYTES:
-        return generateBytes(schema, propertiesProp);
+        return compileBytes(schema, propertiesProp);
       case DOUBLE:
-        return generateDouble(propertiesProp);
+        return compileDouble(propertiesProp);
       case ENUM:
-        return generateEnumSymbol(schema);
+        return new ValueGenerators.EnumGenerator(random, schema);
       case FIXED:
-        return generateFixed(schema);
+        return compileFixed(schema, propertiesProp);
       case FLOAT:
-        return generateFloat(propertiesProp);
+        return compileFloat(propertiesProp);
       case INT:
-        return generateInt(propertiesProp);
+        return compileInt(propertiesProp);
       case LONG:
-        return generateLong(propertiesProp);
+        return compileLong(propertiesProp);
       case MAP:
-        return generateMap(schema, propertiesProp);
+        return compileMap(schema, propertiesProp);
       case NULL:
-        return generateNull();
+        return ValueGenerators.NULL;
       case RECORD:
-        return generateRecord(schema);
+        return compileRecord(schema);
       case STRING:
-        return generateString(schema, propertiesProp);
+        return compileString(schema, propertiesProp);
       case UNION:
-        return generateUnion(schema);
+        return compileUnion(schema);
       default:
         throw new RuntimeException("Unrecognized schema type: " + schema.getType());
     }
   }
 
+  /**
+   * Rejects the properties that shape how {@link #OPTIONS_PROP} are picked when there are none.
+   */
+  private void enforceOptionsProps(Schema schema, Map propertiesProp) {
+    if (propertiesProp.containsKey(WEIGHTS_PROP)) {
+      throw new RuntimeException(String.format(
+          "Cannot specify %s prop without %s prop",
+          WEIGHTS_PROP,
+          OPTIONS_PROP
+      ));
+    }
+    if (propertiesProp.containsKey(DISTRIBUTION_PROP)
+        && schema.getType() != Schema.Type.INT
+        && schema.getType() != Schema.Type.LONG) {
+      throw new RuntimeException(String.format(
+          "%s prop is only supported with %s prop, or for int and long schemas",
+          DISTRIBUTION_PROP,
+          OPTIONS_PROP
+      ));
+    }
+  }
+
   private Optional<Map> getProperties(Schema schema) {
     Object propertiesProp = schema.getObjectProp(ARG_PROPERTIES_PROP);
     if (propertiesProp == null) {
@@ -512,109 +748,233 @@ public class Generator {
       }
       return options;
     } else if (optionsProp instanceof Map) {
-      Map optionsProps = (Map) optionsProp;
-      Object optionsFile = optionsProps.get(OPTIONS_PROP_FILE);
-      if (optionsFile == null) {
-        throw new RuntimeException(String.format(
-            "%s property must contain '%s' field when given as object",
-            OPTIONS_PROP,
-            OPTIONS_PROP_FILE
-        ));
-      }
-      if (!(optionsFile instanceof String)) {
-        throw new RuntimeException(String.format(
-            "'%s' field of %s property must be given as string, was %s instead",
-            OPTIONS_PROP_FILE,
-            OPTIONS_PROP,
-            optionsFile.getClass().getName()
-        ));
-      }
-      Object optionsEncoding = optionsProps.get(OPTIONS_PROP_ENCODING);
-      if (optionsEncoding == null) {
-        throw new RuntimeException(String.format(
-            "%s property must contain '%s' field when given as object",
-            OPTIONS_PROP,
-            OPTIONS_PROP_FILE
-        ));
-      }
-      if (!(optionsEncoding instanceof String)) {
+      return parseOptionsFile(schema, (Map) optionsProp);
+    } else {
+      throw new RuntimeException(String.format(
+          "%s prop must be an array or an object, was %s instead",
+          OPTIONS_PROP,
+          optionsProp.getClass().getName()
+      ));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> parseOptionsFile(Schema schema, Map optionsProps) {
+    String optionsFile = getOptionsFileField(optionsProps, OPTIONS_PROP_FILE);
+    String optionsEncoding = getOptionsFileField(optionsProps, OPTIONS_PROP_ENCODING);
+    if (isMapped(optionsProps)) {
+      return mapOptions(schema, optionsFile, optionsEncoding);
+    }
+    try (InputStream optionsStream = new FileInputStream(optionsFile)) {
+      DatumReader<Object> optionReader = new GenericDatumReader(schema);
+      Decoder decoder;
+      if ("binary".equals(optionsEncoding)) {
+        decoder = DecoderFactory.get().binaryDecoder(optionsStream, null);
+      } else if ("json".equals(optionsEncoding)) {
+        decoder = DecoderFactory.get().jsonDecoder(schema, optionsStream);
+      } else {
         throw new RuntimeException(String.format(
-            "'%s' field of %s property must be given as string, was %s instead",
+            "'%s' field of %s property only supports two formats: 'binary' and 'json'",
             OPTIONS_PROP_ENCODING,
-            OPTIONS_PROP,
-            optionsEncoding.getClass().getName()
+            OPTIONS_PROP
         ));
       }
-      try (InputStream optionsStream = new FileInputStream((String) optionsFile)) {
-        DatumReader<Object> optionReader = new GenericDatumReader(schema);
-        Decoder decoder;
-        if ("binary".equals(optionsEncoding)) {
-          decoder = DecoderFactory.get().binaryDecoder(optionsStream, null);
-        } else if ("json".equals(optionsEncoding)) {
-          decoder = DecoderFactory.get().jsonDecoder(schema, optionsStream);
-        } else {
+      List<Object> options = new ArrayList<>();
+      Object option = optionReader.read(null, decoder);
+      while (option != null) {
+        option = wrapOption(schema, option);
+        if (!GenericData.get().validate(schema, option)) {
           throw new RuntimeException(String.format(
-              "'%s' field of %s property only supports two formats: 'binary' and 'json'",
-              OPTIONS_PROP_ENCODING,
-              OPTIONS_PROP
+              "Invalid option for %s schema: type %s, value '%s'",
+              schema.getType().getName(),
+              option.getClass().getName(),
+              option
           ));
         }
-        List<Object> options = new ArrayList<>();
-        Object option = optionReader.read(null, decoder);
-        while (option != null) {
-          option = wrapOption(schema, option);
-          if (!GenericData.get().validate(schema, option)) {
-            throw new RuntimeException(String.format(
-                "Invalid option for %s schema: type %s, value '%s'",
-                schema.getType().getName(),
-                option.getClass().getName(),
-                option
-            ));
-          }
-          options.add(option);
-          try {
-            option = optionReader.read(null, decoder);
-          } catch (EOFException eofe) {
-            break;
-          }
+        options.add(option);
+        try {
+          option = optionReader.read(null, decoder);
+        } catch (EOFException eofe) {
+          break;
         }
-        return options;
-      } catch (FileNotFoundException fnfe) {
-        throw new RuntimeException(
-            String.format(
-                "Unable to locate options file '%s'",
-                optionsFile
-            ),
-            fnfe
-        );
-      } catch (IOException ioe) {
-        throw new RuntimeException(
-            String.format(
-                "Unable to read options file '%s'",
-                optionsFile
-            ),
-            ioe
-        );
       }
-    } else {
+      return options;
+    } catch (FileNotFoundException fnfe) {
+      throw new RuntimeException(
+          String.format(
+              "Unable to locate options file '%s'",
+              optionsFile
+          ),
+          fnfe
+      );
+    } catch (IOException ioe) {
+      throw new RuntimeException(
+          String.format(
+              "Unable to read options file '%s'",
+              optionsFile
+          ),
+          ioe
+      );
+    }
+  }
+
+  private String getOptionsFileField(Map optionsProps, String field) {
+    Object value = optionsProps.get(field);
+    if (value == null) {
       throw new RuntimeException(String.format(
-          "%s prop must be an array or an object, was %s instead",
+          "%s property must contain '%s' field when given as object",
           OPTIONS_PROP,
-          optionsProp.getClass().getName()
+          field
       ));
     }
+    if (!(value instanceof String)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be given as string, was %s instead",
+          field,
+          OPTIONS_PROP,
+          value.getClass().getName()
+      ));
+    }
+    return (String) value;
   }
 
-  @SuppressWarnings("unchecked")
-  private <T> T generateOption(Schema schema, Map propertiesProp) {
-    if (!optionsCache.containsKey(schema)) {
-      optionsCache.put(schema, parseOptions(schema, propertiesProp));
+  private boolean isMapped(Map optionsProps) {
+    Object mappedProp = optionsProps.get(OPTIONS_PROP_MAPPED);
+    if (mappedProp != null && !(mappedProp instanceof Boolean)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be given as boolean, was %s instead",
+          OPTIONS_PROP_MAPPED,
+          OPTIONS_PROP,
+          mappedProp.getClass().getName()
+      ));
     }
-    List<Object> options = optionsCache.get(schema);
-    return (T) options.get(random.nextInt(options.size()));
+    boolean mapped = Boolean.TRUE.equals(mappedProp);
+    if (!mapped && optionsProps.containsKey(OPTIONS_PROP_CACHE)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property can only be given with '%s'",
+          OPTIONS_PROP_CACHE,
+          OPTIONS_PROP,
+          OPTIONS_PROP_MAPPED
+      ));
+    }
+    return mapped;
+  }
+
+  private List<Object> mapOptions(Schema schema, String optionsFile, String optionsEncoding) {
+    if (!"binary".equals(optionsEncoding)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property is only supported with 'binary' '%s'",
+          OPTIONS_PROP_MAPPED,
+          OPTIONS_PROP,
+          OPTIONS_PROP_ENCODING
+      ));
+    }
+    MappedOptions options;
+    try {
+      options = MappedOptions.map(schema, Paths.get(optionsFile), MappedOptions.MAX_SEGMENT_SIZE);
+    } catch (IOException ioe) {
+      throw new RuntimeException(
+          String.format(
+              "Unable to read options file '%s'",
+              optionsFile
+          ),
+          ioe
+      );
+    }
+    if (options.isEmpty()) {
+      throw new RuntimeException(String.format(
+          "%s property cannot be empty",
+          OPTIONS_PROP
+      ));
+    }
+    return options;
   }
 
-  private Iterator<Object> getBooleanIterator(Map iterationProps) {
+  private int getOptionsCacheSize(Map propertiesProp) {
+    Object optionsProp = propertiesProp.get(OPTIONS_PROP);
+    Object cacheProp = optionsProp instanceof Map ? ((Map) optionsProp).get(OPTIONS_PROP_CACHE) : null;
+    if (cacheProp == null) {
+      return 0;
+    }
+    if (!(cacheProp instanceof Integer) || (Integer) cacheProp < 0) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be given as a non-negative integer",
+          OPTIONS_PROP_CACHE,
+          OPTIONS_PROP
+      ));
+    }
+    return (Integer) cacheProp;
+  }
+
+  private ValueGenerator compileOptions(Schema cacheKey, Schema schema, Map propertiesProp) {
+    List<Object> options = getOptions(cacheKey, schema, propertiesProp);
+    Distribution distribution = getOptionsDistribution(propertiesProp, options.size());
+    if (options instanceof MappedOptions) {
+      return new ValueGenerators.MappedOptionGenerator(
+          random,
+          ((MappedOptions) options).reader(getOptionsCacheSize(propertiesProp)),
+          options.size(),
+          distribution
+      );
+    }
+    if (options instanceof OptionPool) {
+      return new ValueGenerators.PooledOptionGenerator(random, (OptionPool) options, distribution);
+    }
+    return new ValueGenerators.OptionGenerator(random, schema, options, distribution);
+  }
+
+  private Distribution getOptionsDistribution(Map propertiesProp, int optionCount) {
+    Object distributionProp = propertiesProp.get(DISTRIBUTION_PROP);
+    if (distributionProp != null) {
+      enforceMutualExclusion(propertiesProp, DISTRIBUTION_PROP, WEIGHTS_PROP);
+      return Distribution.parse(distributionProp, optionCount);
+    }
+    Object weightsProp = propertiesProp.get(WEIGHTS_PROP);
+    if (weightsProp == null) {
+      return null;
+    }
+    if (!(weightsProp instanceof List) || ((List) weightsProp).size() != optionCount) {
+      throw new RuntimeException(String.format(
+          "%s property must be an array with one weight for each of the %d options",
+          WEIGHTS_PROP,
+          optionCount
+      ));
+    }
+    double[] weights = new double[optionCount];
+    double total = 0;
+    for (int i = 0; i < optionCount; i++) {
+      Object weight = ((List) weightsProp).get(i);
+      if (!(weight instanceof Number) || !(((Number) weight).doubleValue() >= 0)) {
+        throw new RuntimeException(String.format(
+            "%s property must only contain non-negative numbers, was '%s' instead",
+            WEIGHTS_PROP,
+            weight
+        ));
+      }
+      weights[i] = ((Number) weight).doubleValue();
+      total += weights[i];
+    }
+    if (!(total > 0) || Double.isInfinite(total)) {
+      throw new RuntimeException(String.format(
+          "%s property must have a positive, finite total",
+          WEIGHTS_PROP
+      ));
+    }
+    return new AliasTable(weights);
+  }
+
+  /**
+   * @return The options for {@code schema}, parsed at most once per options cache even when several
+   *     threads compile their plans at the same time.
+   */
+  private List<Object> getOptions(Schema cacheKey, Schema schema, Map propertiesProp) {
+    return optionsCache.computeIfAbsent(cacheKey, key -> {
+      List<Object> options = parseOptions(schema, propertiesProp);
+      return options instanceof MappedOptions ? options : OptionPool.pack(schema, options);
+    });
+  }
+
+  private SeekableIterator getBooleanIterator(Map iterationProps) {
     Object startProp = iterationProps.get(ITERATION_PROP_START);
     if (startProp == null) {
       throw new RuntimeException(String.format(
@@ -646,13 +1006,11 @@ public class Generator {
       ));
     }
 
-    // If an odd number of records have been generated previously, then the boolean will have
-    // changed state effectively once, and so the start state should be inverted.
-    return new BooleanIterator((generation % 2 == 1) ^ ((Boolean) startProp));
+    return new BooleanIterator((Boolean) startProp, generation);
   }
 
   @SuppressWarnings("checkstyle:JavaNCSS")
-  private Iterator<Object> getIntegralIterator(
+  private SeekableIterator getIntegralIterator(
       Long iterationStartField,
       Long iterationRestartField,
       Long iterationStepField,
@@ -762,18 +1120,21 @@ public class Generator {
       iterationInitial = iterationInitialField;
     }
 
-    return new IntegralIterator(
-        iterationStart,
-        iterationRestart,
-        iterationStep,
-        iterationInitial,
-        generation,
-        type
-    );
+    return newIntegralIterator(iterationStart, iterationRestart, iterationStep, iterationInitial, type);
+  }
+
+  /**
+   * Uses primitive arithmetic where it cannot overflow, and arbitrary precision otherwise.
+   */
+  private SeekableIterator newIntegralIterator(
+      long start, long restart, long step, long initial, IntegralIterator.Type type) {
+    SeekableIterator primitive = PrimitiveIterators.integral(
+        start, restart, step, initial, generation, type == IntegralIterator.Type.INTEGER);
+    return primitive != null ? primitive : new IntegralIterator(start, restart, step, initial, generation, type);
   }
 
   @SuppressWarnings("checkstyle:JavaNCSS")
-  private Iterator<Object> getDecimalIterator(
+  private SeekableIterator getDecimalIterator(
       Double iterationStartField,
       Double iterationRestartField,
       Double iterationStepField,
@@ -883,17 +1244,20 @@ public class Generator {
       iterationInitial = iterationInitialField;
     }
 
-    return new DecimalIterator(
-        iterationStart,
-        iterationRestart,
-        iterationStep,
-        iterationInitial,
-        generation,
-        type
-    );
+    return newDecimalIterator(iterationStart, iterationRestart, iterationStep, iterationInitial, type);
   }
 
-  private Iterator<Object> parseIterations(Schema schema, Map propertiesProp) {
+  /**
+   * Uses primitive arithmetic where it cannot overflow, and arbitrary precision otherwise.
+   */
+  private SeekableIterator newDecimalIterator(
+      double start, double restart, double step, double initial, DecimalIterator.Type type) {
+    SeekableIterator primitive = PrimitiveIterators.decimal(
+        start, restart, step, initial, generation, type == DecimalIterator.Type.FLOAT);
+    return primitive != null ? primitive : new DecimalIterator(start, restart, step, initial, generation, type);
+  }
+
+  private SeekableIterator parseIterations(Schema schema, Map propertiesProp) {
     enforceMutualExclusion(
         propertiesProp, ITERATION_PROP,
         LENGTH_PROP, REGEX_PROP, OPTIONS_PROP, RANGE_PROP
@@ -921,7 +1285,7 @@ public class Generator {
       case DOUBLE:
         return getDoubleIterator(iterationProps);
       case STRING:
-        return createStringIterator(getIntegerIterator(iterationProps), propertiesProp);
+        return getIntegerIterator(iterationProps);
       default:
         throw new UnsupportedOperationException(String.format(
             "%s property can only be specified on numeric, boolean or string schemas, "
@@ -932,7 +1296,7 @@ public class Generator {
     }
   }
 
-  private Iterator<Object> getDoubleIterator(final Map iterationProps) {
+  private SeekableIterator getDoubleIterator(final Map iterationProps) {
     Double iterationStartField = getDecimalNumberField(
         ITERATION_PROP,
         ITERATION_PROP_START,
@@ -962,7 +1326,7 @@ public class Generator {
     );
   }
 
-  private Iterator<Object> getFloatIterator(final Map iterationProps) {
+  private SeekableIterator getFloatIterator(final Map iterationProps) {
     Float iterationStartField = getFloatNumberField(
         ITERATION_PROP,
         ITERATION_PROP_START,
@@ -992,7 +1356,7 @@ public class Generator {
     );
   }
 
-  private Iterator<Object> getLongIterator(final Map iterationProps) {
+  private SeekableIterator getLongIterator(final Map iterationProps) {
     Long iterationStartField = getIntegralNumberField(
         ITERATION_PROP,
         ITERATION_PROP_START,
@@ -1022,21 +1386,7 @@ public class Generator {
     );
   }
 
-  private Iterator<Object> createStringIterator(Iterator<Object> inner, Map propertiesProp) {
-    return new Iterator<Object>() {
-      @Override
-      public boolean hasNext() {
-        return inner.hasNext();
-      }
-
-      @Override
-      public Object next() {
-        return prefixAndSuffixString(inner.next().toString(), propertiesProp);
-      }
-    };
-  }
-
-  private Iterator<Object> getIntegerIterator(Map iterationProps) {
+  private SeekableIterator getIntegerIterator(Map iterationProps) {
     Integer iterationStartField = getIntegerNumberField(
         ITERATION_PROP,
         ITERATION_PROP_START,
@@ -1066,268 +1416,159 @@ public class Generator {
     );
   }
 
-  @SuppressWarnings("unchecked")
-  private <T> T generateIteration(Schema schema, Map propertiesProp) {
-    if (!iteratorCache.containsKey(schema)) {
-      iteratorCache.put(schema, parseIterations(schema, propertiesProp));
-    }
-    return (T) iteratorCache.get(schema).next();
-  }
-
-  private Collection<Object> generateArray(Schema schema, Map propertiesProp) {
-    int length = getLengthBounds(propertiesProp).random();
-    Collection<Object> result = new ArrayList<>(length);
-    for (int i = 0; i < length; i++) {
-      result.add(generateObject(schema.getElementType()));
+  private ValueGenerator compileIteration(Schema schema, Map propertiesProp) {
+    SeekableIterator iterator = parseIterations(schema, propertiesProp);
+    iterators.add(iterator);
+    if (schema.getType() == Schema.Type.STRING) {
+      return new ValueGenerators.StringIterationGenerator(
+          iterator,
+          getAffixProp(propertiesProp, PREFIX_PROP),
+          getAffixProp(propertiesProp, SUFFIX_PROP)
+      );
     }
-    return result;
+    return new ValueGenerators.IterationGenerator(iterator, schema.getType());
   }
 
-  private Boolean generateBoolean(Map propertiesProp) {
+  private ValueGenerator compileBoolean(Map propertiesProp) {
     Double odds = getDecimalNumberField(ARG_PROPERTIES_PROP, ODDS_PROP, propertiesProp);
     if (odds == null) {
-      return random.nextBoolean();
-    } else {
-      if (odds < 0.0 || odds > 1.0) {
-        throw new RuntimeException(String.format(
-            "%s property must be in the range [0.0, 1.0]",
-            ODDS_PROP
-        ));
-      }
-      return random.nextDouble() < odds;
+      return new ValueGenerators.BooleanGenerator(random);
     }
+    if (odds < 0.0 || odds > 1.0) {
+      throw new RuntimeException(String.format(
+          "%s property must be in the range [0.0, 1.0]",
+          ODDS_PROP
+      ));
+    }
+    return new ValueGenerators.BooleanOddsGenerator(random, odds);
   }
 
-  private ByteBuffer generateBytes(Schema schema, Map propertiesProp) {
+  private ValueGenerator compileBytes(Schema schema, Map propertiesProp) {
     LogicalTypes.Decimal decimalLogicalType = getDecimalLogicalType(schema);
-    byte[] bytes;
     if (decimalLogicalType != null) {
-      bytes = generateDecimal(decimalLogicalType, propertiesProp);
-    } else {
-      bytes = new byte[getLengthBounds(propertiesProp.get(LENGTH_PROP)).random()];
-      random.nextBytes(bytes);
+      return DecimalGenerators.compile(random, null, decimalLogicalType, propertiesProp);
     }
-    return ByteBuffer.wrap(bytes);
+    return new ValueGenerators.BytesGenerator(random, getLengthBounds(propertiesProp));
   }
 
-  private Double generateDouble(Map propertiesProp) {
+  private ValueGenerator compileDouble(Map propertiesProp) {
     Object rangeProp = propertiesProp.get(RANGE_PROP);
-    if (rangeProp != null) {
-      if (rangeProp instanceof Map) {
-        Map rangeProps = (Map) rangeProp;
-        Double rangeMinField = getDecimalNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
-        Double rangeMaxField = getDecimalNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
-        double rangeMin = rangeMinField != null ? rangeMinField : -1 * Double.MAX_VALUE;
-        double rangeMax = rangeMaxField != null ? rangeMaxField : Double.MAX_VALUE;
-        if (rangeMin >= rangeMax) {
-          throw new RuntimeException(String.format(
-              "'%s' field must be strictly less than '%s' field in %s property",
-              RANGE_PROP_MIN,
-              RANGE_PROP_MAX,
-              RANGE_PROP
-          ));
-        }
-        return rangeMin + (random.nextDouble() * (rangeMax - rangeMin));
-      } else {
-        throw new RuntimeException(String.format(
-            "%s property must be an object",
-            RANGE_PROP
-        ));
-      }
+    if (rangeProp == null) {
+      return new ValueGenerators.DoubleGenerator(random);
     }
-    return random.nextDouble();
-  }
-
-  private GenericEnumSymbol generateEnumSymbol(Schema schema) {
-    List<String> enums = schema.getEnumSymbols();
-    return new
-        GenericData.EnumSymbol(schema, enums.get(random.nextInt(enums.size())));
+    if (!(rangeProp instanceof Map)) {
+      throw new RuntimeException(String.format(
+          "%s property must be an object",
+          RANGE_PROP
+      ));
+    }
+    Map rangeProps = (Map) rangeProp;
+    Double rangeMinField = getDecimalNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
+    Double rangeMaxField = getDecimalNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
+    double rangeMin = rangeMinField != null ? rangeMinField : -1 * Double.MAX_VALUE;
+    double rangeMax = rangeMaxField != null ? rangeMaxField : Double.MAX_VALUE;
+    checkRange(rangeMin < rangeMax);
+    return new ValueGenerators.DoubleRangeGenerator(random, rangeMin, rangeMax);
   }
 
-  private GenericFixed generateFixed(Schema schema) {
+  private ValueGenerator compileFixed(Schema schema, Map propertiesProp) {
     LogicalTypes.Decimal decimalLogicalType = getDecimalLogicalType(schema);
-    byte[] bytes;
     if (decimalLogicalType != null) {
-      // We don't support ranges for fixed decimal types at the moment
-      bytes = generateDecimal(decimalLogicalType, null);
-    } else {
-      bytes = new byte[schema.getFixedSize()];
-      random.nextBytes(bytes);
-    }
-    return new GenericData.Fixed(schema, bytes);
-  }
-
-  private byte[] generateDecimal(LogicalTypes.Decimal decimalLogicalType, Map propertiesProp) {
-    Object rangeProp = Optional.ofNullable(propertiesProp).map(m -> m.get(RANGE_PROP)).orElse(null);
-    if (rangeProp != null) {
-      if (rangeProp instanceof Map) {
-        Map rangeProps = (Map) rangeProp;
-        Double rangeMinField = getDecimalNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
-        Double rangeMaxField = getDecimalNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
-        double rangeMin = rangeMinField != null ? rangeMinField : -1 * Math.pow(10, decimalLogicalType.getPrecision()
-                - decimalLogicalType.getScale());
-        double rangeMax = rangeMaxField != null ? rangeMaxField : Math.pow(10, decimalLogicalType.getPrecision()
-                - decimalLogicalType.getScale());
-        if (rangeMin >= rangeMax) {
-          throw new RuntimeException(String.format(
-              "'%s' field must be strictly less than '%s' field in %s property",
-              RANGE_PROP_MIN,
-              RANGE_PROP_MAX,
-              RANGE_PROP
-          ));
-        }
-        // We'll just generate a random double in the requested range and then convert it to a logical decimal type
-        double result = rangeMin + (random.nextDouble() * (rangeMax - rangeMin));
-        return BigDecimal.valueOf(result)
-            // Adjust by the scale of the decimal type in order to get the "unscaled" value described below before
-            // converting to a twos-complement byte array
-            .scaleByPowerOfTen(decimalLogicalType.getScale())
-            .toBigInteger()
-            .toByteArray();
-      } else {
-        throw new RuntimeException(String.format(
-            "%s property must be an object",
-            RANGE_PROP
-        ));
-      }
-    } else {
-        /*
-          According to the Avro 1.9.1 spec (http://avro.apache.org/docs/1.9.1/spec.html#Decimal):
-
-          "The decimal logical type represents an arbitrary-precision signed decimal number of the form
-        unscaled × 10-scale.
-
-          "A decimal logical type annotates Avro bytes or fixed types. The byte array must contain the
-        two's-complement representation of the unscaled integer value in big-endian byte order. The scale
-        is fixed, and is specified using an attribute."
-
-          We generate a random decimal here by starting with a value of zero, then repeatedly multiplying
-        by 10^15 (15 is the minimum number of significant digits in a double), and adding a new random
-        value in the range [0, 10^15) generated using the Random object for this generator. This is done
-        until the precision of the current value is equal to or greater than the precision of the logical
-        type. At this point, any extra digits (of there should be at most 14) are rounded off from the
-        value, a sign is randomly selected, it is converted to big-endian two's-complement representation,
-        and returned.
-         */
-      BigInteger bigInteger = BigInteger.ZERO;
-      final long maxIncrementExclusive = 1_000_000_000_000_000L;
-      int precision;
-      for (precision = 0; precision < decimalLogicalType.getPrecision(); precision += 15) {
-        bigInteger = bigInteger.multiply(BigInteger.valueOf(maxIncrementExclusive));
-        long increment = (long) (random.nextDouble() * maxIncrementExclusive);
-        bigInteger = bigInteger.add(BigInteger.valueOf(increment));
-      }
-      bigInteger = bigInteger.divide(
-          BigInteger.TEN.pow(precision - decimalLogicalType.getPrecision())
-      );
-      if (random.nextBoolean()) {
-        bigInteger = bigInteger.negate();
-      }
-      return bigInteger.toByteArray();
+      return DecimalGenerators.compile(random, schema, decimalLogicalType, propertiesProp);
     }
+    return new ValueGenerators.FixedGenerator(random, schema);
   }
 
-  private Float generateFloat(Map propertiesProp) {
+  private ValueGenerator compileFloat(Map propertiesProp) {
     Object rangeProp = propertiesProp.get(RANGE_PROP);
-    if (rangeProp != null) {
-      if (rangeProp instanceof Map) {
-        Map rangeProps = (Map) rangeProp;
-        Float rangeMinField = getFloatNumberField(
-            RANGE_PROP,
-            RANGE_PROP_MIN,
-            rangeProps
-        );
-        Float rangeMaxField = getFloatNumberField(
-            RANGE_PROP,
-            RANGE_PROP_MAX,
-            rangeProps
-        );
-        float rangeMin = Optional.ofNullable(rangeMinField).orElse(-1 * Float.MAX_VALUE);
-        float rangeMax = Optional.ofNullable(rangeMaxField).orElse(Float.MAX_VALUE);
-        if (rangeMin >= rangeMax) {
-          throw new RuntimeException(String.format(
-              "'%s' field must be strictly less than '%s' field in %s property",
-              RANGE_PROP_MIN,
-              RANGE_PROP_MAX,
-              RANGE_PROP
-          ));
-        }
-        return rangeMin + (random.nextFloat() * (rangeMax - rangeMin));
-      }
-    }
-    return random.nextFloat();
+    if (!(rangeProp instanceof Map)) {
+      return new ValueGenerators.FloatGenerator(random);
+    }
+    Map rangeProps = (Map) rangeProp;
+    Float rangeMinField = getFloatNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
+    Float rangeMaxField = getFloatNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
+    float rangeMin = Optional.ofNullable(rangeMinField).orElse(-1 * Float.MAX_VALUE);
+    float rangeMax = Optional.ofNullable(rangeMaxField).orElse(Float.MAX_VALUE);
+    checkRange(rangeMin < rangeMax);
+    return new ValueGenerators.FloatRangeGenerator(random, rangeMin, rangeMax);
   }
 
-  private Integer generateInt(Map propertiesProp) {
+  private ValueGenerator compileInt(Map propertiesProp) {
     Object rangeProp = propertiesProp.get(RANGE_PROP);
-    if (rangeProp != null) {
-      if (rangeProp instanceof Map) {
-        Map rangeProps = (Map) rangeProp;
-        Integer rangeMinField = getIntegerNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
-        Integer rangeMaxField = getIntegerNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
-        int rangeMin = Optional.ofNullable(rangeMinField).orElse(Integer.MIN_VALUE);
-        int rangeMax = Optional.ofNullable(rangeMaxField).orElse(Integer.MAX_VALUE);
-        if (rangeMin >= rangeMax) {
-          throw new RuntimeException(String.format(
-              "'%s' field must be strictly less than '%s' field in %s property",
-              RANGE_PROP_MIN,
-              RANGE_PROP_MAX,
-              RANGE_PROP
-          ));
-        }
-        return rangeMin + ((int) (random.nextDouble() * (rangeMax - rangeMin)));
-      }
-    }
-    return random.nextInt();
+    boolean distributed = propertiesProp.containsKey(DISTRIBUTION_PROP);
+    if (!(rangeProp instanceof Map) && !distributed) {
+      return new ValueGenerators.IntGenerator(random);
+    }
+    Map rangeProps = rangeProp instanceof Map ? (Map) rangeProp : Collections.emptyMap();
+    Integer rangeMinField = getIntegerNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
+    Integer rangeMaxField = getIntegerNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
+    int rangeMin = Optional.ofNullable(rangeMinField).orElse(Integer.MIN_VALUE);
+    int rangeMax = Optional.ofNullable(rangeMaxField).orElse(Integer.MAX_VALUE);
+    checkRange(rangeMin < rangeMax);
+    if (distributed) {
+      return compileDistribution(propertiesProp, rangeMin, rangeMax, Schema.Type.INT);
+    }
+    return new ValueGenerators.IntRangeGenerator(random, rangeMin, rangeMax);
   }
 
-  private Long generateLong(Map propertiesProp) {
+  private ValueGenerator compileLong(Map propertiesProp) {
     Object rangeProp = propertiesProp.get(RANGE_PROP);
-    if (rangeProp != null) {
-      if (rangeProp instanceof Map) {
-        Map rangeProps = (Map) rangeProp;
-        Long rangeMinField = getIntegralNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
-        Long rangeMaxField = getIntegralNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
-        long rangeMin = Optional.ofNullable(rangeMinField).orElse(Long.MIN_VALUE);
-        long rangeMax = Optional.ofNullable(rangeMaxField).orElse(Long.MAX_VALUE);
-        if (rangeMin >= rangeMax) {
-          throw new RuntimeException(String.format(
-              "'%s' field must be strictly less than '%s' field in %s property",
-              RANGE_PROP_MIN,
-              RANGE_PROP_MAX,
-              RANGE_PROP
-          ));
-        }
-        return rangeMin + (((long) (random.nextDouble() * (rangeMax - rangeMin))));
-      }
+    boolean distributed = propertiesProp.containsKey(DISTRIBUTION_PROP);
+    if (!(rangeProp instanceof Map) && !distributed) {
+      return new ValueGenerators.LongGenerator(random);
+    }
+    Map rangeProps = rangeProp instanceof Map ? (Map) rangeProp : Collections.emptyMap();
+    Long rangeMinField = getIntegralNumberField(RANGE_PROP, RANGE_PROP_MIN, rangeProps);
+    Long rangeMaxField = getIntegralNumberField(RANGE_PROP, RANGE_PROP_MAX, rangeProps);
+    long rangeMin = Optional.ofNullable(rangeMinField).orElse(Long.MIN_VALUE);
+    long rangeMax = Optional.ofNullable(rangeMaxField).orElse(Long.MAX_VALUE);
+    checkRange(rangeMin < rangeMax);
+    if (distributed) {
+      return compileDistribution(propertiesProp, rangeMin, rangeMax, Schema.Type.LONG);
+    }
+    return new ValueGenerators.LongRangeGenerator(random, rangeMin, rangeMax);
+  }
+
+  private ValueGenerator compileDistribution(
+      Map propertiesProp,
+      long rangeMin,
+      long rangeMax,
+      Schema.Type type) {
+    long size = rangeMax - rangeMin;
+    if (size <= 0) {
+      throw new RuntimeException(String.format(
+          "%s prop needs a %s that spans fewer than 2^63 values",
+          DISTRIBUTION_PROP,
+          RANGE_PROP
+      ));
+    }
+    Distribution distribution = Distribution.parse(propertiesProp.get(DISTRIBUTION_PROP), size);
+    return new ValueGenerators.DistributionGenerator(random, distribution, rangeMin, type);
+  }
+
+  private void checkRange(boolean minLessThanMax) {
+    if (!minLessThanMax) {
+      throw new RuntimeException(String.format(
+          "'%s' field must be strictly less than '%s' field in %s property",
+          RANGE_PROP_MIN,
+          RANGE_PROP_MAX,
+          RANGE_PROP
+      ));
     }
-    return random.nextLong();
   }
 
-  private Map<String, Object> generateMap(Schema schema, Map propertiesProp) {
-    Map<String, Object> result = new HashMap<>();
-    int length = getLengthBounds(propertiesProp).random();
+  private ValueGenerator compileMap(Schema schema, Map propertiesProp) {
+    LengthBounds lengthBounds = getLengthBounds(propertiesProp);
     Object keyProp = propertiesProp.get(KEYS_PROP);
+    ValueGenerator keys;
     if (keyProp == null) {
-      for (int i = 0; i < length; i++) {
-        result.put(generateRandomString(1), generateObject(schema.getValueType()));
-      }
+      keys = new ValueGenerators.StringGenerator(random, LengthBounds.SINGLE, false, "", "");
     } else if (keyProp instanceof Map) {
       Map keyPropMap = (Map) keyProp;
       if (keyPropMap.containsKey(OPTIONS_PROP)) {
-        if (!optionsCache.containsKey(schema)) {
-          optionsCache.put(schema, parseOptions(Schema.create(Schema.Type.STRING), keyPropMap));
-        }
-        for (int i = 0; i < length; i++) {
-          result.put(generateOption(schema, keyPropMap), generateObject(schema.getValueType()));
-        }
+        keys = compileOptions(schema, Schema.create(Schema.Type.STRING), keyPropMap);
       } else {
-        for (int i = 0; i < length; i++) {
-          result.put(
-              generateString(schema, keyPropMap),
-              generateObject(schema.getValueType())
-          );
-        }
+        keys = compileString(schema, keyPropMap);
       }
     } else {
       throw new RuntimeException(String.format(
@@ -1335,81 +1576,86 @@ public class Generator {
           KEYS_PROP
       ));
     }
-    return result;
-  }
-
-  private Object generateNull() {
-    return null;
+    return new ValueGenerators.MapGenerator(
+        random,
+        schema,
+        lengthBounds,
+        keys,
+        compile(schema.getValueType())
+    );
   }
 
-  private GenericRecord generateRecord(Schema schema) {
-    GenericRecordBuilder builder = new GenericRecordBuilder(schema);
-    for (Schema.Field field : schema.getFields()) {
-      builder.set(field, generateObject(field.schema()));
-    }
-    return builder.build();
+  private ValueGenerator compileRecord(Schema schema) {
+    ValueGenerators.RecordGenerator record = new ValueGenerators.RecordGenerator(schema);
+    // Register the record before compiling its fields so recursive references resolve to it
+    compiledCache.put(schema, record);
+    record.fieldGenerators(schema.getFields().stream()
+        .map(field -> compile(field.schema()))
+        .toArray(ValueGenerator[]::new));
+    return record;
   }
 
-  @SuppressWarnings("unchecked")
-  private String generateRegexString(Schema schema, Object regexProp, LengthBounds lengthBounds) {
-    if (!generexCache.containsKey(schema)) {
-      if (!(regexProp instanceof String)) {
-        throw new RuntimeException(String.format("%s property must be a string", REGEX_PROP));
+  private ValueGenerator compileString(Schema schema, Map propertiesProp) {
+    String prefix = getAffixProp(propertiesProp, PREFIX_PROP);
+    String suffix = getAffixProp(propertiesProp, SUFFIX_PROP);
+    Object regexProp = propertiesProp.getOrDefault(REGEX_PROP, LogicalTypeGenerators.defaultRegex(schema, propertiesProp));
+    if (regexProp != null) {
+      enforceMutualExclusion(propertiesProp, REGEX_PROP, PRINTABLE_PROP);
+      Object lengthProp = propertiesProp.get(LENGTH_PROP);
+      LengthBounds lengthBounds = lengthProp == null
+          ? LengthBounds.UNBOUNDED
+          : getLengthBounds(lengthProp);
+      RegexAutomaton automaton = compileRegex(regexProp, lengthBounds);
+      byte[][] characterClasses = automaton.asciiCharacterClasses();
+      if (characterClasses != null) {
+        return new ValueGenerators.CharacterClassGenerator(random, characterClasses, prefix, suffix);
       }
-      generexCache.put(schema, new Generex((String) regexProp, random));
-    }
-    // Generex.random(low, high) generates in range [low, high]; we want [low, high), so subtract
-    // 1 from maxLength
-    return generexCache.get(schema).random(lengthBounds.min(), lengthBounds.max() - 1);
+      return new ValueGenerators.RegexStringGenerator(random, automaton, prefix, suffix);
+    }
+    return new ValueGenerators.StringGenerator(
+        random,
+        getLengthBounds(propertiesProp),
+        isPrintable(propertiesProp),
+        prefix,
+        suffix
+    );
   }
 
-  private String generateRandomString(int length) {
-    byte[] bytes = new byte[length];
-    for (int i = 0; i < length; i++) {
-      bytes[i] = (byte) random.nextInt(128);
+  private boolean isPrintable(Map propertiesProp) {
+    Object printableProp = propertiesProp.get(PRINTABLE_PROP);
+    if (printableProp == null) {
+      return false;
     }
-    return new String(bytes, StandardCharsets.US_ASCII);
+    if (!(printableProp instanceof Boolean)) {
+      throw new RuntimeException(String.format("%s property must be a boolean", PRINTABLE_PROP));
+    }
+    return (Boolean) printableProp;
   }
 
-  private String generateString(Schema schema, Map propertiesProp) {
-    Object regexProp = propertiesProp.get(REGEX_PROP);
-
-    String result;
-    if (regexProp != null) {
-      Object lengthProp = propertiesProp.get(LENGTH_PROP);
-      LengthBounds lengthBounds;
-      if (lengthProp == null) {
-        lengthBounds = new LengthBounds(0, Integer.MAX_VALUE);
-      } else {
-        lengthBounds = getLengthBounds(lengthProp);
-      }
-      result = generateRegexString(schema, regexProp, lengthBounds);
-    } else {
-      result = generateRandomString(getLengthBounds(propertiesProp).random());
+  private RegexAutomaton compileRegex(Object regexProp, LengthBounds lengthBounds) {
+    if (!(regexProp instanceof String)) {
+      throw new RuntimeException(String.format("%s property must be a string", REGEX_PROP));
     }
-
-    return  prefixAndSuffixString(result, propertiesProp);
+    // Length bounds exclude their maximum, whereas the automaton's maximum is inclusive
+    return RegexAutomaton.compile((String) regexProp, lengthBounds.min(), lengthBounds.max() - 1);
   }
 
-  private String prefixAndSuffixString(String result, Map propertiesProp) {
-    Object prefixProp = propertiesProp.get(PREFIX_PROP);
-    if (prefixProp != null && !(prefixProp instanceof String)) {
-      throw new RuntimeException(String.format("%s property must be a string", PREFIX_PROP));
+  private String getAffixProp(Map propertiesProp, String affixProp) {
+    Object affix = propertiesProp.get(affixProp);
+    if (affix == null) {
+      return "";
     }
-    String prefix = prefixProp != null ? (String) prefixProp : "";
-
-    Object suffixProp = propertiesProp.get(SUFFIX_PROP);
-    if (suffixProp != null && !(suffixProp instanceof String)) {
-      throw new RuntimeException(String.format("%s property must be a string", SUFFIX_PROP));
+    if (!(affix instanceof String)) {
+      throw new RuntimeException(String.format("%s property must be a string", affixProp));
     }
-    String suffix = suffixProp != null ? (String) suffixProp : "";
-
-    return prefix + result + suffix;
+    return (String) affix;
   }
 
-  private Object generateUnion(Schema schema) {
-    List<Schema> schemas = schema.getTypes();
-    return generateObject(schemas.get(random.nextInt(schemas.size())));
+  private ValueGenerator compileUnion(Schema schema) {
+    return new ValueGenerators.UnionGenerator(
+        random,
+        schema.getTypes().stream().map(this::compile).toArray(ValueGenerator[]::new)
+    );
   }
 
   private LengthBounds getLengthBounds(Map propertiesProp) {
@@ -1418,7 +1664,7 @@ public class Generator {
 
   private LengthBounds getLengthBounds(Object lengthProp) {
     if (lengthProp == null) {
-      return new LengthBounds();
+      return LengthBounds.DEFAULT;
     } else if (lengthProp instanceof Integer) {
       Integer length = (Integer) lengthProp;
       if (length < 0) {
@@ -1527,10 +1773,18 @@ public class Generator {
     }
   }
 
-  private class LengthBounds {
+  /**
+   * An immutable, half-open range of lengths, {@code [min, max)}. Bounds are parsed once per schema
+   * and the common ones are shared, so no bounds are allocated while generating.
+   */
+  static final class LengthBounds {
     public static final int DEFAULT_MIN = 8;
     public static final int DEFAULT_MAX = 16;
 
+    static final LengthBounds DEFAULT = new LengthBounds(DEFAULT_MIN, DEFAULT_MAX);
+    static final LengthBounds UNBOUNDED = new LengthBounds(0, Integer.MAX_VALUE);
+    static final LengthBounds SINGLE = new LengthBounds(1);
+
     private final int min;
     private final int max;
 
@@ -1543,11 +1797,7 @@ public class Generator {
       this(exact, exact + 1);
     }
 
-    LengthBounds() {
-      this(DEFAULT_MIN, DEFAULT_MAX);
-    }
-
-    public int random() {
+    public int random(Random random) {
       return min + random.nextInt(max - min);
     }
 
@@ -1560,7 +1810,15 @@ public class Generator {
     }
   }
 
-  private static class IntegralIterator implements Iterator<Object> {
+  /**
+   * An endless iterator whose position can be moved to where it would be after a given number of
+   * values.
+   */
+  interface SeekableIterator extends Iterator<Object> {
+    void seek(long count);
+  }
+
+  static class IntegralIterator implements SeekableIterator {
     public enum Type {
       INTEGER, LONG
     }
@@ -1568,6 +1826,7 @@ public class Generator {
     private final BigInteger start;
     private final BigInteger restart;
     private final BigInteger step;
+    private final BigInteger initialOffset;
     private final Type type;
     private BigInteger current;
 
@@ -1575,18 +1834,24 @@ public class Generator {
       this.start = BigInteger.valueOf(start);
       this.restart = BigInteger.valueOf(restart);
       this.step = BigInteger.valueOf(step);
+      this.initialOffset = BigInteger.valueOf(initial).subtract(this.start);
       this.type = type;
-      current = BigInteger.valueOf(initial).subtract(this.start);
+      seek(count);
+    }
+
+    @Override
+    public void seek(long count) {
+      current = initialOffset;
       if (count > 0) {
         // This is essentially the following expression when ignoring negative values:
         // current = (count * step) % (restart - start)
         // except BigInteger::mod only operates on positive numbers, so remove and re-add the sign after the modulo.
         current = BigInteger.valueOf(count)
-            .multiply(this.step)
+            .multiply(step)
             .add(current)
             .abs()
-            .mod(this.restart.subtract(this.start).abs())
-            .multiply(this.step.divide(this.step.abs()));
+            .mod(restart.subtract(start).abs())
+            .multiply(step.divide(step.abs()));
       }
     }
 
@@ -1615,7 +1880,7 @@ public class Generator {
     }
   }
 
-  private static class DecimalIterator implements Iterator<Object> {
+  static class DecimalIterator implements SeekableIterator {
     public enum Type {
       FLOAT, DOUBLE
     }
@@ -1624,6 +1889,7 @@ public class Generator {
     private final BigDecimal restart;
     private final BigDecimal modulo;
     private final BigDecimal step;
+    private final BigDecimal initialOffset;
     private final Type type;
     private BigDecimal current;
 
@@ -1632,13 +1898,19 @@ public class Generator {
       this.restart = BigDecimal.valueOf(restart);
       this.modulo = this.restart.subtract(this.start);
       this.step = BigDecimal.valueOf(step);
+      this.initialOffset = BigDecimal.valueOf(initial).subtract(this.start);
       this.type = type;
-      current = BigDecimal.valueOf(initial).subtract(this.start);
+      seek(count);
+    }
+
+    @Override
+    public void seek(long count) {
+      current = initialOffset;
       if (count > 0) {
         current = BigDecimal.valueOf(count)
-            .multiply(this.step)
+            .multiply(step)
             .add(current)
-            .remainder(this.modulo);
+            .remainder(modulo);
       }
     }
 
@@ -1664,11 +1936,20 @@ public class Generator {
     }
   }
 
-  private static class BooleanIterator implements Iterator<Object> {
+  private static class BooleanIterator implements SeekableIterator {
+    private final boolean start;
     private boolean current;
 
-    BooleanIterator(boolean start) {
-      current = start;
+    BooleanIterator(boolean start, long count) {
+      this.start = start;
+      seek(count);
+    }
+
+    @Override
+    public void seek(long count) {
+      // If an odd number of records have been generated previously, then the boolean will have
+      // changed state effectively once, and so the start state should be inverted.
+      current = (count % 2 == 1) ^ start;
     }
 
     @Override
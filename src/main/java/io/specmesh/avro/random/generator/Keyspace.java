@@ -0,0 +1,247 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A fixed set of {@code cardinality} keys for one field of the top-level record, so that many
+ * records can be generated as updates to far fewer keys.
+ *
+ * <p>Every record draws a uniform index in {@code [0, cardinality)} and derives its key from that
+ * index and the keyspace's seed alone; no key is ever stored. Plain {@code int}, {@code long} and
+ * {@code string} fields, without {@value Generator#ARG_PROPERTIES_PROP} or a logical type, take
+ * their key from a bijective mix of the index, so exactly {@code cardinality} distinct keys exist.
+ * Any other field is generated as usual by its own schema, reseeded from the index for every key;
+ * such keys are just as deterministic, but two indices may collide if the field's schema has few
+ * possible values.
+ *
+ * <p>Generators that share a keyspace, for example the per-thread generators of a
+ * {@link ConcurrentGenerator}, draw from the same set of keys.
+ */
+final class Keyspace {
+
+  private static final long MAX_INT_CARDINALITY = 1L << 32;
+
+  private final String field;
+  private final long cardinality;
+  private final long seed;
+
+  Keyspace(String field, long cardinality, long seed) {
+    if (cardinality < 1) {
+      throw new RuntimeException(String.format(
+          "Key cardinality must be at least 1, was %d",
+          cardinality
+      ));
+    }
+    this.field = field;
+    this.cardinality = cardinality;
+    this.seed = seed;
+  }
+
+  /**
+   * @return The name of the key field.
+   */
+  String field() {
+    return field;
+  }
+
+  /**
+   * Replaces the key field's node in the compiled plan of the top-level record. Only the top-level
+   * record draws keys; any nested occurrence of its schema is generated as usual.
+   * @param schema The top-level schema.
+   * @param root The compiled plan for {@code schema}.
+   * @param random The randomness to draw key indices from.
+   * @param optionsCache Parsed options, shared with the generator that owns {@code root}.
+   * @return The plan to use as the root instead of {@code root}.
+   */
+  ValueGenerator apply(
+      Schema schema,
+      ValueGenerator root,
+      Random random,
+      Map<Schema, List<Object>> optionsCache) {
+    if (!(root instanceof ValueGenerators.RecordGenerator)) {
+      throw new RuntimeException(String.format(
+          "Key field %s requires a top-level record schema without options, found %s instead",
+          field,
+          schema.getType().getName()
+      ));
+    }
+    Schema.Field keyField = schema.getField(field);
+    if (keyField == null) {
+      throw new RuntimeException(String.format(
+          "Key field %s not found in record %s",
+          field,
+          schema.getFullName()
+      ));
+    }
+    return ((ValueGenerators.RecordGenerator) root).withFieldGenerator(
+        keyField.pos(),
+        compile(keyField.schema(), random, optionsCache)
+    );
+  }
+
+  /**
+   * @return A node drawing keys for a field of schema {@code keySchema}, with indices drawn from
+   *     {@code random}.
+   */
+  ValueGenerator compile(
+      Schema keySchema,
+      Random random,
+      Map<Schema, List<Object>> optionsCache) {
+    boolean plain = keySchema.getObjectProp(Generator.ARG_PROPERTIES_PROP) == null
+        && keySchema.getLogicalType() == null;
+    switch (plain ? keySchema.getType() : Schema.Type.NULL) {
+      case INT:
+        if (cardinality > MAX_INT_CARDINALITY) {
+          throw new RuntimeException(String.format(
+              "Cannot draw %d distinct keys from int field %s",
+              cardinality,
+              field
+          ));
+        }
+        return new IntKeyGenerator(random);
+      case LONG:
+        return new LongKeyGenerator(random);
+      case STRING:
+        return new StringKeyGenerator(random);
+      default:
+        Random keyRandom = new Random();
+        Generator keys = new Generator(keySchema, keyRandom, 0L, optionsCache, null, 0L);
+        if (keys.iterates()) {
+          throw new RuntimeException(String.format(
+              "Key field %s cannot use %s",
+              field,
+              keys.iterationProp()
+          ));
+        }
+        return new SchemaKeyGenerator(random, keyRandom, keys);
+    }
+  }
+
+  /**
+   * The splitmix64 finalizer: a bijection on longs, so distinct indices give distinct keys.
+   */
+  static long mix(long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * The murmur3 finalizer: a bijection on ints.
+   */
+  static int mix(int value) {
+    int h = value;
+    h = (h ^ (h >>> 16)) * 0x85ebca6b;
+    h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Base for the key nodes, drawing one index per key.
+   */
+  private abstract class KeyGenerator implements ValueGenerator {
+    private final Random random;
+
+    KeyGenerator(Random random) {
+      this.random = random;
+    }
+
+    long nextIndex() {
+      return seed + Distribution.uniform(random, cardinality);
+    }
+  }
+
+  private final class IntKeyGenerator extends KeyGenerator {
+    IntKeyGenerator(Random random) {
+      super(random);
+    }
+
+    @Override
+    public Object generate() {
+      return mix((int) nextIndex());
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeInt(mix((int) nextIndex()));
+    }
+  }
+
+  private final class LongKeyGenerator extends KeyGenerator {
+    LongKeyGenerator(Random random) {
+      super(random);
+    }
+
+    @Override
+    public Object generate() {
+      return mix(nextIndex());
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeLong(mix(nextIndex()));
+    }
+  }
+
+  private final class StringKeyGenerator extends KeyGenerator {
+    StringKeyGenerator(Random random) {
+      super(random);
+    }
+
+    @Override
+    public Object generate() {
+      return Long.toUnsignedString(mix(nextIndex()), Character.MAX_RADIX);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeString((String) generate());
+    }
+  }
+
+  private final class SchemaKeyGenerator extends KeyGenerator {
+    private final Random keyRandom;
+    private final Generator keys;
+
+    SchemaKeyGenerator(Random random, Random keyRandom, Generator keys) {
+      super(random);
+      this.keyRandom = keyRandom;
+      this.keys = keys;
+    }
+
+    @Override
+    public Object generate() {
+      keyRandom.setSeed(mix(nextIndex()));
+      return keys.generate();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      keyRandom.setSeed(mix(nextIndex()));
+      keys.write(encoder);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.Random;
+
+/**
+ * An L64X128MixRandom generator (Steele and Vigna's LXM family), exposed as a {@link Random} so
+ * that it can be used anywhere the generator accepts one. It combines a 64-bit linear congruential
+ * generator with xoroshiro128 and mixes their sum, and seeds and outputs exactly as the JDK 17
+ * implementation of the same name does, without requiring JDK 17. Like
+ * {@link Xoroshiro128PlusPlus} it keeps plain state, so an instance must not be shared between
+ * threads. Use {@link #split()} to derive independent streams.
+ */
+public final class L64X128MixRandom extends Random {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final long MULTIPLIER = 0xd1342543de82ef95L;
+  private static final long GOLDEN_RATIO_64 = 0x9e3779b97f4a7c15L;
+  private static final long SILVER_RATIO_64 = 0x6a09e667f3bcc909L;
+
+  private long a;
+  private long s;
+  private long x0;
+  private long x1;
+
+  public L64X128MixRandom(long seed) {
+    super(seed);
+  }
+
+  L64X128MixRandom(long a, long s, long x0, long x1) {
+    super(0L);
+    initialize(a, s, x0, x1);
+  }
+
+  /**
+   * Expands {@code seed} into the full generator state, as the JDK does: the additive parameter
+   * and the xoroshiro state are hashed from the seed, and the LCG state starts at 1.
+   */
+  @Override
+  public void setSeed(long seed) {
+    long z = seed ^ SILVER_RATIO_64;
+    initialize(mixMurmur64(z), 1, mixStafford13(z), mixStafford13(z + GOLDEN_RATIO_64));
+  }
+
+  private void initialize(long a, long s, long x0, long x1) {
+    // The additive parameter must be odd, and the xoroshiro state must not be all zero
+    this.a = a | 1;
+    this.s = s;
+    if ((x0 | x1) == 0) {
+      this.x0 = mixStafford13(s + GOLDEN_RATIO_64);
+      this.x1 = mixStafford13(s + 2 * GOLDEN_RATIO_64);
+    } else {
+      this.x0 = x0;
+      this.x1 = x1;
+    }
+  }
+
+  private static long mixStafford13(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private static long mixMurmur64(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+
+  private static long mixLea64(long z) {
+    z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+    z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+    return z ^ (z >>> 32);
+  }
+
+  /**
+   * Returns a generator whose entire state, including the additive parameter that selects its
+   * LCG subsequence, is drawn from this one. Distinct additive parameters make the streams
+   * statistically independent.
+   * @return A new generator.
+   */
+  public L64X128MixRandom split() {
+    return new L64X128MixRandom(nextLong(), nextLong(), nextLong(), nextLong());
+  }
+
+  @Override
+  public long nextLong() {
+    long result = mixLea64(s + x0);
+    s = MULTIPLIER * s + a;
+    long q0 = x0;
+    long q1 = x1;
+    q1 ^= q0;
+    q0 = Long.rotateLeft(q0, 24);
+    q0 = q0 ^ q1 ^ (q1 << 16);
+    q1 = Long.rotateLeft(q1, 37);
+    x0 = q0;
+    x1 = q1;
+    return result;
+  }
+
+  @Override
+  protected int next(int bits) {
+    return (int) (nextLong() >>> (Long.SIZE - bits));
+  }
+
+  @Override
+  public int nextInt() {
+    return (int) (nextLong() >>> Integer.SIZE);
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  @Override
+  public float nextFloat() {
+    return (nextLong() >>> 40) * 0x1.0p-24f;
+  }
+
+  @Override
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+}
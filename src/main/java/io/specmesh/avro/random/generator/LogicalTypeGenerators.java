@@ -0,0 +1,348 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Generators for the date, time, timestamp and uuid logical types. Temporal values are worked out
+ * in the type's own unit with plain long arithmetic, never building {@link java.time} objects, and
+ * uuids are written from random bits as a fixed sequence of character classes, never building
+ * {@link java.util.UUID} objects.
+ *
+ * <p>Without further properties, values are uniform over a sensible span: times over a whole day,
+ * and dates and timestamps from 1970 up to 2100. With a {@value Generator#CLOCK_PROP} property,
+ * values instead follow a logical, event-time clock that advances by {@value #STEP} for every value
+ * generated, however fast or slowly values are generated in real time:
+ * <ul>
+ *   <li>{@value #START}: the clock's first value, in the type's unit, or {@value #NOW} for the
+ *   current time (the default)</li>
+ *   <li>{@value #STEP}: how far the clock advances per value (defaults to 1)</li>
+ *   <li>{@value #JITTER}: the most by which a value may trail the clock (defaults to 0); values stay
+ *   in order as long as this is less than {@value #STEP}</li>
+ *   <li>{@value #DISORDER}: the fraction of values that arrive late (defaults to 0)</li>
+ *   <li>{@value #LATENESS}: the most by which a late value trails the clock (defaults to ten steps)
+ *   </li>
+ * </ul>
+ * The clock's position is the generation number, like an {@value Generator#ITERATION_PROP}, so
+ * concurrent generators share a single clock. It only keeps pace with real time if values are
+ * generated at one per {@value #STEP}, for example when paced to that rate.
+ */
+final class LogicalTypeGenerators {
+  static final String START = "start";
+  static final String STEP = "step";
+  static final String JITTER = "jitter";
+  static final String DISORDER = "disorder";
+  static final String LATENESS = "lateness";
+  static final String NOW = "now";
+
+  static final String UUID_LOGICAL_TYPE_NAME = "uuid";
+  /** Random (version 4) UUIDs, which generate as a fixed sequence of character classes. */
+  static final String UUID_REGEX =
+      "[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}";
+
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+  /** 2100-01-01T00:00:00Z, the end of the default span of dates and timestamps. */
+  private static final long END_MILLIS = 4_102_444_800_000L;
+
+  private LogicalTypeGenerators() {
+  }
+
+  /**
+   * The supported logical types, and how to convert epoch milliseconds into each one's unit.
+   */
+  private enum Unit {
+    DATE("date", Schema.Type.INT, 1, MILLIS_PER_DAY, 0, false),
+    TIME_MILLIS("time-millis", Schema.Type.INT, 1, 1, MILLIS_PER_DAY, false),
+    TIME_MICROS("time-micros", Schema.Type.LONG, 1_000, 1, MILLIS_PER_DAY * 1_000, false),
+    TIMESTAMP_MILLIS("timestamp-millis", Schema.Type.LONG, 1, 1, 0, false),
+    TIMESTAMP_MICROS("timestamp-micros", Schema.Type.LONG, 1_000, 1, 0, false),
+    LOCAL_TIMESTAMP_MILLIS("local-timestamp-millis", Schema.Type.LONG, 1, 1, 0, true),
+    LOCAL_TIMESTAMP_MICROS("local-timestamp-micros", Schema.Type.LONG, 1_000, 1, 0, true);
+
+    private final String logicalType;
+    private final Schema.Type type;
+    private final long multiplier;
+    private final long divisor;
+    private final long period;
+    private final boolean local;
+
+    Unit(String logicalType, Schema.Type type, long multiplier, long divisor, long period, boolean local) {
+      this.logicalType = logicalType;
+      this.type = type;
+      this.multiplier = multiplier;
+      this.divisor = divisor;
+      this.period = period;
+      this.local = local;
+    }
+
+    static Unit of(Schema schema) {
+      LogicalType logicalType = schema.getLogicalType();
+      if (logicalType == null) {
+        return null;
+      }
+      for (Unit unit : values()) {
+        if (unit.logicalType.equals(logicalType.getName()) && unit.type == schema.getType()) {
+          return unit;
+        }
+      }
+      return null;
+    }
+
+    long fromMillis(long millis) {
+      long value = Math.floorDiv(millis * multiplier, divisor);
+      return period > 0 ? Math.floorMod(value, period) : value;
+    }
+
+    long now() {
+      return at(System.currentTimeMillis());
+    }
+
+    /**
+     * @return The wall-clock time {@code epochMillis}, in this unit and time zone.
+     */
+    long at(long epochMillis) {
+      return fromMillis(local ? epochMillis + TimeZone.getDefault().getOffset(epochMillis) : epochMillis);
+    }
+
+    long end() {
+      return period > 0 ? period : fromMillis(END_MILLIS);
+    }
+  }
+
+  /**
+   * @param schema The schema to generate values for.
+   * @param propertiesProp The schema's {@value Generator#ARG_PROPERTIES_PROP}.
+   * @param random The randomness to generate values with.
+   * @param iterators The generator's seekable iterators, which a clock joins.
+   * @param generation The generation number that a clock starts at.
+   * @param clockEpoch The wall-clock time, in epoch milliseconds, that a clock starting now starts
+   *     at.
+   * @return A generator for the schema's logical type, or null if it has none supported here, or
+   *     has a {@value Generator#RANGE_PROP} or {@value Generator#DISTRIBUTION_PROP} that the
+   *     generator for its underlying type should apply instead.
+   */
+  static ValueGenerator compile(
+      Schema schema,
+      Map propertiesProp,
+      Random random,
+      List<Generator.SeekableIterator> iterators,
+      long generation,
+      long clockEpoch) {
+    Unit unit = Unit.of(schema);
+    Object clockProp = propertiesProp.get(Generator.CLOCK_PROP);
+    if (unit == null) {
+      if (clockProp != null) {
+        throw new RuntimeException(String.format(
+            "%s property is only supported for date, time and timestamp logical types",
+            Generator.CLOCK_PROP
+        ));
+      }
+      return null;
+    }
+    boolean ranged = propertiesProp.containsKey(Generator.RANGE_PROP)
+        || propertiesProp.containsKey(Generator.DISTRIBUTION_PROP);
+    if (clockProp == null) {
+      return ranged ? null : uniform(unit, random);
+    }
+    if (ranged) {
+      throw new RuntimeException(String.format(
+          "%s property cannot be used with %s or %s",
+          Generator.CLOCK_PROP,
+          Generator.RANGE_PROP,
+          Generator.DISTRIBUTION_PROP
+      ));
+    }
+    if (!(clockProp instanceof Map)) {
+      throw new RuntimeException(String.format(
+          "%s property must be an object",
+          Generator.CLOCK_PROP
+      ));
+    }
+    Clock clock = clock(unit, (Map) clockProp, random, clockEpoch);
+    clock.seek(generation);
+    iterators.add(clock);
+    return clock;
+  }
+
+  /**
+   * @param schema An int or long schema.
+   * @return The current time in the unit of the schema's date, time or timestamp logical type, or
+   *     in epoch milliseconds for a plain long.
+   * @throws RuntimeException if the schema is neither.
+   */
+  static long now(Schema schema) {
+    if (!isTemporal(schema)) {
+      throw new RuntimeException(String.format(
+          "Expected a long, or a date, time or timestamp logical type, found %s instead",
+          schema
+      ));
+    }
+    Unit unit = Unit.of(schema);
+    return unit != null ? unit.now() : System.currentTimeMillis();
+  }
+
+  /**
+   * @return Whether {@link #now(Schema)} supports {@code schema}: a date, time or timestamp logical
+   *     type, or a plain long.
+   */
+  static boolean isTemporal(Schema schema) {
+    return Unit.of(schema) != null
+        || (schema.getType() == Schema.Type.LONG && schema.getLogicalType() == null);
+  }
+
+  /**
+   * @param schema The string schema to generate values for.
+   * @param propertiesProp The schema's {@value Generator#ARG_PROPERTIES_PROP}.
+   * @return {@link #UUID_REGEX} for uuid schemas that do not otherwise shape their strings, or
+   *     null.
+   */
+  static String defaultRegex(Schema schema, Map propertiesProp) {
+    LogicalType logicalType = schema.getLogicalType();
+    boolean uuid = logicalType != null && UUID_LOGICAL_TYPE_NAME.equals(logicalType.getName());
+    return uuid
+        && !propertiesProp.containsKey(Generator.LENGTH_PROP)
+        && !propertiesProp.containsKey(Generator.PRINTABLE_PROP)
+        ? UUID_REGEX
+        : null;
+  }
+
+  private static ValueGenerator uniform(Unit unit, Random random) {
+    return unit.type == Schema.Type.INT
+        ? new ValueGenerators.IntRangeGenerator(random, 0, (int) unit.end())
+        : new ValueGenerators.LongRangeGenerator(random, 0, unit.end());
+  }
+
+  private static Clock clock(Unit unit, Map clockProps, Random random, long clockEpoch) {
+    Object startProp = clockProps.get(START);
+    long start = startProp == null || NOW.equals(startProp)
+        ? unit.at(clockEpoch)
+        : getLong(clockProps, START, 0);
+    long step = getLong(clockProps, STEP, 1);
+    long jitter = getLong(clockProps, JITTER, 0);
+    long lateness = getLong(clockProps, LATENESS, Math.max(step, 1) * 10);
+    Object disorderProp = clockProps.get(DISORDER);
+    double disorder = disorderProp instanceof Number ? ((Number) disorderProp).doubleValue() : 0;
+    if (step < 0 || jitter < 0 || lateness < 1) {
+      throw new RuntimeException(String.format(
+          "'%s' and '%s' fields of %s property cannot be negative, and '%s' must be positive",
+          STEP,
+          JITTER,
+          Generator.CLOCK_PROP,
+          LATENESS
+      ));
+    }
+    if ((disorderProp != null && !(disorderProp instanceof Number)) || !(disorder >= 0 && disorder <= 1)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be in the range [0.0, 1.0]",
+          DISORDER,
+          Generator.CLOCK_PROP
+      ));
+    }
+    return new Clock(random, unit, start, step, jitter, disorder, lateness);
+  }
+
+  private static long getLong(Map props, String field, long defaultValue) {
+    Object value = props.get(field);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (!(value instanceof Integer || value instanceof Long)) {
+      throw new RuntimeException(String.format(
+          "'%s' field of %s property must be an integral number, was '%s' instead",
+          field,
+          Generator.CLOCK_PROP,
+          value
+      ));
+    }
+    return ((Number) value).longValue();
+  }
+
+  /**
+   * A logical clock at {@code start + position * step}, from which each value trails by up to
+   * {@code jitter}, or, for the late fraction of values, by up to {@code lateness} more.
+   */
+  static final class Clock implements ValueGenerator, Generator.SeekableIterator {
+    private final Random random;
+    private final Unit unit;
+    private final long start;
+    private final long step;
+    private final long jitter;
+    private final double disorder;
+    private final long lateness;
+    private long position;
+
+    Clock(Random random, Unit unit, long start, long step, long jitter, double disorder, long lateness) {
+      this.random = random;
+      this.unit = unit;
+      this.start = start;
+      this.step = step;
+      this.jitter = jitter;
+      this.disorder = disorder;
+      this.lateness = lateness;
+    }
+
+    @Override
+    public void seek(long count) {
+      position = count;
+    }
+
+    private long nextValue() {
+      long value = start + position++ * step;
+      if (jitter > 0) {
+        value -= Distribution.uniform(random, jitter + 1);
+      }
+      if (disorder > 0 && random.nextDouble() < disorder) {
+        value -= 1 + Distribution.uniform(random, lateness);
+      }
+      return unit.period > 0 ? Math.floorMod(value, unit.period) : value;
+    }
+
+    @Override
+    public Object generate() {
+      long value = nextValue();
+      return unit.type == Schema.Type.INT ? (Object) (int) value : (Object) value;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      if (unit.type == Schema.Type.INT) {
+        encoder.writeInt((int) nextValue());
+      } else {
+        encoder.writeLong(nextValue());
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return true;
+    }
+
+    @Override
+    public Object next() {
+      return generate();
+    }
+  }
+}
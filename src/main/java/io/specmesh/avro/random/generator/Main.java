@@ -16,18 +16,23 @@
 
 package io.specmesh.avro.random.generator;
 
+import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Random;
 
 /**
  * Replace with PicoCLi - Find a good argument parser that doesn't strip double quotes off of arguments and allows for
@@ -63,6 +68,42 @@ public final class Main {
   public static final String OUTPUT_FILE_SHORT_FLAG = "-o";
   public static final String OUTPUT_FILE_LONG_FLAG = "--output";
 
+  public static final String THREADS_SHORT_FLAG = "-t";
+  public static final String THREADS_LONG_FLAG = "--threads";
+
+  public static final String UNORDERED_SHORT_FLAG = "-u";
+  public static final String UNORDERED_LONG_FLAG = "--unordered";
+
+  public static final String RANDOM_SHORT_FLAG = "-r";
+  public static final String RANDOM_LONG_FLAG = "--random";
+
+  public static final String RATE_SHORT_FLAG = "-R";
+  public static final String RATE_LONG_FLAG = "--rate";
+
+  public static final String BYTE_RATE_SHORT_FLAG = "-B";
+  public static final String BYTE_RATE_LONG_FLAG = "--byte-rate";
+
+  public static final String KEY_CARDINALITY_SHORT_FLAG = "-K";
+  public static final String KEY_CARDINALITY_LONG_FLAG = "--key-cardinality";
+
+  public static final String KEY_FIELD_SHORT_FLAG = "-k";
+  public static final String KEY_FIELD_LONG_FLAG = "--key-field";
+
+  public static final String POOL_SHORT_FLAG = "-P";
+  public static final String POOL_LONG_FLAG = "--pool";
+
+  public static final String SAMPLE_SHORT_FLAG = "-S";
+  public static final String SAMPLE_LONG_FLAG = "--sample";
+
+  public static final String TIMESTAMP_FIELD_SHORT_FLAG = "-T";
+  public static final String TIMESTAMP_FIELD_LONG_FLAG = "--timestamp-field";
+
+  public static final String ASYNC_SHORT_FLAG = "-a";
+  public static final String ASYNC_LONG_FLAG = "--async";
+
+  public static final String BUFFER_SIZE_SHORT_FLAG = "-z";
+  public static final String BUFFER_SIZE_LONG_FLAG = "--buffer-size";
+
   public static final String HELP_SHORT_FLAG_1 = "-?";
   public static final String HELP_SHORT_FLAG_2 = "-h";
   public static final String HELP_LONG_FLAG = "--help";
@@ -70,6 +111,8 @@ public final class Main {
   private static final boolean PRETTY_FORMAT = true;
   private static final boolean COMPACT_FORMAT = false;
 
+  private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
   private static final boolean JSON_ENCODING = true;
   private static final boolean BINARY_ENCODING = false;
 
@@ -78,55 +121,175 @@ public final class Main {
    * {@link Generator} object to produce randomized output according to the parsed options.
    * @param args - args
    */
-  @SuppressWarnings({"checkstyle:CyclomaticComplexity", "checkstyle:JavaNCSS"})
   public static void main(String[] args) {
-    String schema = null;
-    String schemaFile = "-";
-
-    boolean jsonFormat = PRETTY_FORMAT;
+    Options options = parseOptions(args);
+    Schema parsedSchema = readSchema(options.schema, options.schemaFile);
+    Keyspace keyspace = keyspace(parsedSchema, options.keyField, options.keyCardinality);
+    boolean replayable = options.encoding == BINARY_ENCODING && options.threads == 1;
+    RecordPool.Reader replay = replay(
+        parsedSchema,
+        options.algorithm,
+        keyspace,
+        options.poolSize,
+        options.sample,
+        options.timestampField,
+        replayable
+    );
 
-    boolean encoding = JSON_ENCODING;
+    try (OutputStream output = getOutput(options.outputFile, options.asyncBuffers, options.bufferSize)) {
+      Pacer records = pacer(options.rate);
+      Pacer bytes = pacer(options.byteRate);
+      if (replay != null) {
+        replayBinary(replay, parsedSchema, options.iterations, output, records, bytes);
+      } else if (options.threads > 1) {
+        ParallelWriter writer = new ParallelWriter(
+            parsedSchema,
+            options.threads,
+            options.ordered,
+            options.algorithm,
+            new Random().nextLong(),
+            keyspace
+        );
+        if (options.encoding == JSON_ENCODING) {
+          writer.writeJson(options.iterations, output, options.jsonFormat, records, bytes);
+        } else {
+          writer.writeBinary(options.iterations, output, records, bytes);
+        }
+      } else {
+        Generator generator = new Generator.Builder()
+            .schema(parsedSchema)
+            .random(options.algorithm, new Random().nextLong())
+            .keyspace(keyspace)
+            .build();
+        if (options.encoding == JSON_ENCODING) {
+          writeJson(generator, options.iterations, output, options.jsonFormat, records, bytes);
+        } else {
+          writeBinary(generator, options.iterations, output, records, bytes);
+        }
+      }
+    } catch (IOException ioe) {
+      System.err.println(
+          "Error occurred while trying to write to output file: " + ioe.getLocalizedMessage()
+      );
+      System.exit(1);
+    }
+  }
 
-    long iterations = 1;
-    String outputFile = null;
+  /**
+   * The options given on the command line, and their defaults.
+   */
+  private static final class Options {
+    private String schema;
+    private String schemaFile = "-";
+    private boolean jsonFormat = PRETTY_FORMAT;
+    private boolean encoding = JSON_ENCODING;
+    private long iterations = 1;
+    private String outputFile;
+    private int threads = 1;
+    private boolean ordered = true;
+    private RandomAlgorithm algorithm = RandomAlgorithm.JDK;
+    private RateProfile rate;
+    private RateProfile byteRate;
+    private long keyCardinality;
+    private String keyField;
+    private int poolSize;
+    private boolean sample;
+    private String timestampField;
+    private int asyncBuffers;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+  }
 
+  /**
+   * @return The options given by {@code args}. Exits, after printing usage, if they are invalid.
+   */
+  @SuppressWarnings({"checkstyle:CyclomaticComplexity", "checkstyle:JavaNCSS"})
+  private static Options parseOptions(String[] args) {
+    Options options = new Options();
     Iterator<String> argv = Arrays.asList(args).iterator();
     while (argv.hasNext()) {
       String flag = argv.next();
       switch (flag) {
         case SCHEMA_SHORT_FLAG:
         case SCHEMA_LONG_FLAG:
-          schemaFile = null;
-          schema = nextArg(argv, flag);
+          options.schemaFile = null;
+          options.schema = nextArg(argv, flag);
           break;
         case SCHEMA_FILE_SHORT_FLAG:
         case SCHEMA_FILE_LONG_FLAG:
-          schema = null;
-          schemaFile = nextArg(argv, flag);
+          options.schema = null;
+          options.schemaFile = nextArg(argv, flag);
           break;
         case PRETTY_SHORT_FLAG:
         case PRETTY_LONG_FLAG:
-          jsonFormat = PRETTY_FORMAT;
+          options.jsonFormat = PRETTY_FORMAT;
           break;
         case COMPACT_SHORT_FLAG:
         case COMPACT_LONG_FLAG:
-          jsonFormat = COMPACT_FORMAT;
+          options.jsonFormat = COMPACT_FORMAT;
           break;
         case JSON_SHORT_FLAG:
         case JSON_LONG_FLAG:
-          encoding = JSON_ENCODING;
+          options.encoding = JSON_ENCODING;
           break;
         case BINARY_SHORT_FLAG:
         case BINARY_LONG_FLAG:
-          encoding = BINARY_ENCODING;
+          options.encoding = BINARY_ENCODING;
           break;
         case ITERATIONS_SHORT_FLAG:
         case ITERATIONS_LONG_FLAG:
-          iterations = parseIterations(nextArg(argv, flag), flag);
+          options.iterations = parseIterations(nextArg(argv, flag), flag);
           break;
         case OUTPUT_FILE_SHORT_FLAG:
         case OUTPUT_FILE_LONG_FLAG:
-          outputFile = nextArg(argv, flag);
+          options.outputFile = nextArg(argv, flag);
+          break;
+        case THREADS_SHORT_FLAG:
+        case THREADS_LONG_FLAG:
+          options.threads = parseAtLeast(nextArg(argv, flag), flag, 1);
+          break;
+        case UNORDERED_SHORT_FLAG:
+        case UNORDERED_LONG_FLAG:
+          options.ordered = false;
+          break;
+        case RANDOM_SHORT_FLAG:
+        case RANDOM_LONG_FLAG:
+          options.algorithm = parseRandomAlgorithm(nextArg(argv, flag), flag);
+          break;
+        case RATE_SHORT_FLAG:
+        case RATE_LONG_FLAG:
+          options.rate = parseRateProfile(nextArg(argv, flag), flag);
+          break;
+        case BYTE_RATE_SHORT_FLAG:
+        case BYTE_RATE_LONG_FLAG:
+          options.byteRate = parseRateProfile(nextArg(argv, flag), flag);
+          break;
+        case KEY_CARDINALITY_SHORT_FLAG:
+        case KEY_CARDINALITY_LONG_FLAG:
+          options.keyCardinality = parseKeyCardinality(nextArg(argv, flag), flag);
+          break;
+        case KEY_FIELD_SHORT_FLAG:
+        case KEY_FIELD_LONG_FLAG:
+          options.keyField = nextArg(argv, flag);
+          break;
+        case POOL_SHORT_FLAG:
+        case POOL_LONG_FLAG:
+          options.poolSize = parseAtLeast(nextArg(argv, flag), flag, 1);
+          break;
+        case SAMPLE_SHORT_FLAG:
+        case SAMPLE_LONG_FLAG:
+          options.sample = true;
+          break;
+        case TIMESTAMP_FIELD_SHORT_FLAG:
+        case TIMESTAMP_FIELD_LONG_FLAG:
+          options.timestampField = nextArg(argv, flag);
+          break;
+        case ASYNC_SHORT_FLAG:
+        case ASYNC_LONG_FLAG:
+          options.asyncBuffers = parseAtLeast(nextArg(argv, flag), flag, 2);
+          break;
+        case BUFFER_SIZE_SHORT_FLAG:
+        case BUFFER_SIZE_LONG_FLAG:
+          options.bufferSize = parseAtLeast(nextArg(argv, flag), flag, 1);
           break;
         case HELP_SHORT_FLAG_1:
         case HELP_SHORT_FLAG_2:
@@ -138,45 +301,102 @@ public final class Main {
           usage(1);
       }
     }
+    return options;
+  }
 
-    Generator generator = null;
-    try {
-      generator = getGenerator(schema, schemaFile);
-    } catch (IOException ioe) {
-      System.err.println("Error occurred while trying to read schema file");
-      System.exit(1);
+  static void writeJson(Generator generator, long iterations, OutputStream output, boolean pretty)
+      throws IOException {
+    writeJson(generator, iterations, output, pretty, Pacer.UNLIMITED, Pacer.UNLIMITED);
+  }
+
+  /**
+   * Writes records as JSON, holding to the rates of the given pacers. Bytes are counted as the
+   * JSON encoder flushes them, so byte pacing works on the encoder's buffer-sized chunks.
+   */
+  static void writeJson(
+      Generator generator,
+      long iterations,
+      OutputStream output,
+      boolean pretty,
+      Pacer records,
+      Pacer bytes) throws IOException {
+    CountingOutputStream counted = new CountingOutputStream(output);
+    DatumWriter<Object> dataWriter = new GenericDatumWriter<>(generator.schema());
+    Encoder encoder = EncoderFactory.get().jsonEncoder(generator.schema(), counted, pretty);
+    for (long i = 0; i < iterations; i++) {
+      records.acquire(1);
+      dataWriter.write(generator.generate(), encoder);
+      bytes.acquire(counted.drain());
     }
+    encoder.flush();
+    output.write('\n');
+  }
 
+  static void writeBinary(Generator generator, long iterations, OutputStream output)
+      throws IOException {
+    writeBinary(generator, iterations, output, Pacer.UNLIMITED, Pacer.UNLIMITED);
+  }
+
+  /**
+   * Writes records as an Avro container file, holding to the rates of the given pacers. Bytes are
+   * counted as each record is encoded, before any container block compression or framing.
+   */
+  static void writeBinary(
+      Generator generator,
+      long iterations,
+      OutputStream output,
+      Pacer records,
+      Pacer bytes) throws IOException {
     DatumWriter<Object> dataWriter = new GenericDatumWriter<>(generator.schema());
-    if (encoding == JSON_ENCODING) {
-      try (OutputStream output = getOutput(outputFile)) {
-        Encoder encoder = EncoderFactory.get().jsonEncoder(generator.schema(), output, jsonFormat);
-        for (int i = 0; i < iterations; i++) {
-          dataWriter.write(generator.generate(), encoder);
-        }
-        encoder.flush();
-        output.write('\n');
-      } catch (IOException ioe) {
-        System.err.println(
-            "Error occurred while trying to write to output file: " + ioe.getLocalizedMessage()
-        );
-        System.exit(1);
+    RecordBuffer buffer = new RecordBuffer();
+    BinaryEncoder encoder = null;
+    try (DataFileWriter<Object> dataFileWriter =
+             new DataFileWriter<>(dataWriter).create(generator.schema(), blockOutput(output, records, bytes))) {
+      for (long i = 0; i < iterations; i++) {
+        records.acquire(1);
+        buffer.reset();
+        encoder = EncoderFactory.get().directBinaryEncoder(buffer, encoder);
+        generator.write(encoder);
+        bytes.acquire(buffer.size());
+        dataFileWriter.appendEncoded(buffer.view());
       }
-    } else {
-      try (DataFileWriter<Object> dataFileWriter =
-               new DataFileWriter<>(dataWriter).create(generator.schema(), getOutput(outputFile))) {
-        for (int i = 0; i < iterations; i++) {
-          dataFileWriter.append(generator.generate());
-        }
-      } catch (IOException ioe) {
-        System.err.println(
-            "Error occurred while trying to write to output file: " + ioe.getLocalizedMessage()
-        );
-        System.exit(1);
+    }
+  }
+
+  /**
+   * Writes records replayed from a pool as an Avro container file, holding to the rates of the
+   * given pacers. Bytes are counted as in {@link #writeBinary(Generator, long, OutputStream, Pacer,
+   * Pacer)}.
+   */
+  static void replayBinary(
+      RecordPool.Reader reader,
+      Schema schema,
+      long iterations,
+      OutputStream output,
+      Pacer records,
+      Pacer bytes) throws IOException {
+    DatumWriter<Object> dataWriter = new GenericDatumWriter<>(schema);
+    try (DataFileWriter<Object> dataFileWriter =
+             new DataFileWriter<>(dataWriter).create(schema, blockOutput(output, records, bytes))) {
+      for (long i = 0; i < iterations; i++) {
+        records.acquire(1);
+        ByteBuffer encoded = reader.next();
+        bytes.acquire(encoded.remaining());
+        dataFileWriter.appendEncoded(encoded);
       }
     }
   }
 
+  /**
+   * @return The stream for a container file writer to write to. Unless paced, the writer's flush
+   *     after every block is dropped, so that the output is only flushed when full or closed.
+   */
+  private static OutputStream blockOutput(OutputStream output, Pacer records, Pacer bytes) {
+    return records == Pacer.UNLIMITED && bytes == Pacer.UNLIMITED
+        ? new UnflushedOutputStream(output)
+        : output;
+  }
+
   private static long parseIterations(String arg, String flag) {
     try {
       long result = Long.parseLong(arg);
@@ -197,6 +417,112 @@ public final class Main {
     return 0L;
   }
 
+  private static int parseAtLeast(String arg, String flag, int min) {
+    try {
+      int result = Integer.parseInt(arg);
+      if (result < min) {
+        System.err.printf("%s: %s: argument must be at least %d%n", PROGRAM_NAME, flag, min);
+        usage(1);
+      }
+      return result;
+    } catch (NumberFormatException nfe) {
+      System.err.printf("%s: %s: argument must be a number%n", PROGRAM_NAME, flag);
+      usage(1);
+    }
+    return min;
+  }
+
+  private static long parseKeyCardinality(String arg, String flag) {
+    try {
+      long result = Long.parseLong(arg);
+      if (result < 1) {
+        System.err.printf("%s: %s: argument must be at least 1%n", PROGRAM_NAME, flag);
+        usage(1);
+      }
+      return result;
+    } catch (NumberFormatException nfe) {
+      System.err.printf("%s: %s: argument must be a number%n", PROGRAM_NAME, flag);
+      usage(1);
+    }
+    return 1L;
+  }
+
+  /**
+   * @return The keyspace for the given flags, keyed by the record's first field unless another
+   *     was named, or null if no key cardinality was given.
+   */
+  private static Keyspace keyspace(Schema schema, String keyField, long keyCardinality) {
+    if (keyCardinality == 0) {
+      return null;
+    }
+    if (schema.getType() != Schema.Type.RECORD || schema.getFields().isEmpty()) {
+      System.err.printf(
+          "%s: %s: schema must be a record with at least one field%n",
+          PROGRAM_NAME,
+          KEY_CARDINALITY_LONG_FLAG
+      );
+      usage(1);
+    }
+    String field = keyField != null ? keyField : schema.getFields().get(0).name();
+    return new Keyspace(field, keyCardinality, new Random().nextLong());
+  }
+
+  /**
+   * @return A reader replaying a freshly generated pool of {@code poolSize} records, or null if no
+   *     pool size was given.
+   */
+  private static RecordPool.Reader replay(
+      Schema schema,
+      RandomAlgorithm algorithm,
+      Keyspace keyspace,
+      int poolSize,
+      boolean sample,
+      String timestampField,
+      boolean replayable) {
+    if (poolSize == 0) {
+      return null;
+    }
+    if (!replayable) {
+      System.err.printf(
+          "%s: %s: requires %s and a single thread%n",
+          PROGRAM_NAME,
+          POOL_LONG_FLAG,
+          BINARY_LONG_FLAG
+      );
+      usage(1);
+    }
+    Generator generator = new Generator.Builder()
+        .schema(schema)
+        .random(algorithm, new Random().nextLong())
+        .build();
+    RecordPool pool = new RecordPool(generator, poolSize, null, keyspace, timestampField);
+    return pool.reader(algorithm.create(new Random().nextLong()), sample);
+  }
+
+  private static Pacer pacer(RateProfile profile) {
+    return profile != null ? new Pacer(profile) : Pacer.UNLIMITED;
+  }
+
+  private static RateProfile parseRateProfile(String arg, String flag) {
+    try {
+      return RateProfile.parse(arg);
+    } catch (RuntimeException e) {
+      System.err.printf("%s: %s: %s%n", PROGRAM_NAME, flag, e.getMessage());
+      usage(1);
+    }
+    return null;
+  }
+
+  private static RandomAlgorithm parseRandomAlgorithm(String arg, String flag) {
+    try {
+      return RandomAlgorithm.forName(arg);
+    } catch (RuntimeException e) {
+      System.err.printf("%s: %s: %s%n", PROGRAM_NAME, flag, e.getMessage());
+      usage(1);
+    }
+    return RandomAlgorithm.JDK;
+  }
+
   private static String nextArg(Iterator<String> argv, String flag) {
     if (!argv.hasNext()) {
       System.err.printf("%s: %s: argument required%n", PROGRAM_NAME, flag);
@@ -213,7 +539,8 @@ public final class Main {
     String header = String.format("%s: Generate random Avro data%n", PROGRAM_NAME);
 
     String summary = String.format(
-        "Usage: %s [%s <file> | %s <schema>] [%s | %s] [%s | %s] [%s <i>] [%s <file>]%n%n",
+        "Usage: %s [%s <file> | %s <schema>] [%s | %s] [%s | %s] [%s <i>] [%s <file>] [%s <n> [%s]] "
+          + "[%s <algorithm>] [%s <profile>] [%s <profile>] [%s <n> [%s <field>]] [%s <n> [%s] [%s <field>]] [%s <n> [%s <bytes>]]%n%n",
         PROGRAM_NAME,
         SCHEMA_FILE_SHORT_FLAG,
         SCHEMA_SHORT_FLAG,
@@ -222,78 +549,110 @@ public final class Main {
         PRETTY_SHORT_FLAG,
         COMPACT_SHORT_FLAG,
         ITERATIONS_SHORT_FLAG,
-        OUTPUT_FILE_SHORT_FLAG
+        OUTPUT_FILE_SHORT_FLAG,
+        THREADS_SHORT_FLAG,
+        UNORDERED_SHORT_FLAG,
+        RANDOM_SHORT_FLAG,
+        RATE_SHORT_FLAG,
+        BYTE_RATE_SHORT_FLAG,
+        KEY_CARDINALITY_SHORT_FLAG,
+        KEY_FIELD_SHORT_FLAG,
+        POOL_SHORT_FLAG,
+        SAMPLE_SHORT_FLAG,
+        TIMESTAMP_FIELD_SHORT_FLAG,
+        ASYNC_SHORT_FLAG,
+        BUFFER_SIZE_SHORT_FLAG
     );
 
-    final String indentation = "    ";
-    final String separation = "\t";
     String flags =
         "Flags:\n"
-        + String.format(
-            "%s%s, %s, %s:%s%s%n",
-            indentation,
+        + flag(
+            "Print a brief usage summary and exit with status 0",
             HELP_SHORT_FLAG_1,
             HELP_SHORT_FLAG_2,
-            HELP_LONG_FLAG,
-            separation,
-            "Print a brief usage summary and exit with status 0"
-        ) + String.format(
-            "%s%s, %s:%s%s%n",
-            indentation,
+            HELP_LONG_FLAG
+        ) + flag(
+            "Write output on a dedicated I/O thread through <n> buffers, at least 2, and report how often "
+              + "generation and output waited on each other",
+            ASYNC_SHORT_FLAG + " <n>",
+            ASYNC_LONG_FLAG + " <n>"
+        ) + flag(
+            "Limit output to <profile> bytes of encoded records per second (see " + RATE_LONG_FLAG + ")",
+            BYTE_RATE_SHORT_FLAG + " <profile>",
+            BYTE_RATE_LONG_FLAG + " <profile>"
+        ) + flag(
+            "Encode outputted data in binary format",
             BINARY_SHORT_FLAG,
-            BINARY_LONG_FLAG,
-            separation,
-            "Encode outputted data in binary format"
-        ) + String.format(
-            "%s%s, %s:%s%s%n",
-            indentation,
+            BINARY_LONG_FLAG
+        ) + flag(
+            "Output each record on a single line of its own (has no effect if encoding is not JSON)",
             COMPACT_SHORT_FLAG,
-            COMPACT_LONG_FLAG,
-            separation,
-            "Output each record on a single line of its own (has no effect if encoding is not JSON)"
-        ) + String.format(
-            "%s%s <file>, %s <file>:%s%s%n",
-            indentation,
-            SCHEMA_FILE_SHORT_FLAG,
-            SCHEMA_FILE_LONG_FLAG,
-            separation,
-            "Read the schema to spoof from <file>, or stdin if <file> is '-' (default is '-')"
-        ) + String.format(
-            "%s%s <i>, %s <i>:%s%s%n",
-            indentation,
-            ITERATIONS_SHORT_FLAG,
-            ITERATIONS_LONG_FLAG,
-            separation,
-            "Output <i> iterations of spoofed data (default is 1)"
-        ) + String.format(
-            "%s%s, %s:%s%s%n",
-            indentation,
+            COMPACT_LONG_FLAG
+        ) + flag(
+            "Read the schema to spoof from <file>, or stdin if <file> is '-' (default is '-')",
+            SCHEMA_FILE_SHORT_FLAG + " <file>",
+            SCHEMA_FILE_LONG_FLAG + " <file>"
+        ) + flag(
+            "Output <i> iterations of spoofed data (default is 1)",
+            ITERATIONS_SHORT_FLAG + " <i>",
+            ITERATIONS_LONG_FLAG + " <i>"
+        ) + flag(
+            "Encode outputted data in JSON format (default)",
             JSON_SHORT_FLAG,
-            JSON_LONG_FLAG,
-            separation,
-            "Encode outputted data in JSON format (default)"
-        ) + String.format(
-            "%s%s <file>, %s <file>:%s%s%n",
-            indentation,
-            OUTPUT_FILE_SHORT_FLAG,
-            OUTPUT_FILE_LONG_FLAG,
-            separation,
-            "Write data to the file <file>, or stdout if <file> is '-' (default is '-')"
-        ) + String.format(
-            "%s%s, %s:%s%s%n",
-            indentation,
-            PRETTY_SHORT_FLAG,
-            PRETTY_LONG_FLAG,
-            separation,
+            JSON_LONG_FLAG
+        ) + flag(
+            "Draw each record's key (its first field, or " + KEY_FIELD_LONG_FLAG + " <field>) from a fixed set of <n> keys",
+            KEY_CARDINALITY_SHORT_FLAG + " <n>",
+            KEY_CARDINALITY_LONG_FLAG + " <n>"
+        ) + flag(
+            "Write data to the file <file>, or stdout if <file> is '-' (default is '-')",
+            OUTPUT_FILE_SHORT_FLAG + " <file>",
+            OUTPUT_FILE_LONG_FLAG + " <file>"
+        ) + flag(
+            "Generate <n> records once, then replay them for every iteration (binary encoding only)",
+            POOL_SHORT_FLAG + " <n>",
+            POOL_LONG_FLAG + " <n>"
+        ) + flag(
             "Output each record in prettified format (has no effect if encoding is not JSON)"
-              + "(default)"
-        ) + String.format(
-            "%s%s <schema>, %s <schema>:%s%s%n",
-            indentation,
-            SCHEMA_SHORT_FLAG,
-            SCHEMA_LONG_FLAG,
-            separation,
-            "Spoof the schema <schema>"
+              + "(default)",
+            PRETTY_SHORT_FLAG,
+            PRETTY_LONG_FLAG
+        ) + flag(
+            "Generate data with the pseudo-random number generator <algorithm>: jdk (default), "
+              + "splittable, xoroshiro128pp or l64x128mix",
+            RANDOM_SHORT_FLAG + " <algorithm>",
+            RANDOM_LONG_FLAG + " <algorithm>"
+        ) + flag(
+            "Limit output to <profile> records per second, where <profile> is a rate, "
+              + "ramp:<from>:<to>:<duration>, sine:<mean>:<amplitude>:<period> or "
+              + "step:<duration>:<rate>,<rate>... and durations are e.g. 500ms, 30s, 5m or 24h",
+            RATE_SHORT_FLAG + " <profile>",
+            RATE_LONG_FLAG + " <profile>"
+        ) + flag(
+            "Spoof the schema <schema>",
+            SCHEMA_SHORT_FLAG + " <schema>",
+            SCHEMA_LONG_FLAG + " <schema>"
+        ) + flag(
+            "Replay pooled records in a random order, instead of cycling through them",
+            SAMPLE_SHORT_FLAG,
+            SAMPLE_LONG_FLAG
+        ) + flag(
+            "Generate and encode data on <n> threads (default is 1)",
+            THREADS_SHORT_FLAG + " <n>",
+            THREADS_LONG_FLAG + " <n>"
+        ) + flag(
+            "Set <field> to the current time in every replayed record",
+            TIMESTAMP_FIELD_SHORT_FLAG + " <field>",
+            TIMESTAMP_FIELD_LONG_FLAG + " <field>"
+        ) + flag(
+            "Write records as soon as any thread has them ready, instead of in generation order "
+              + "(has no effect with a single thread)",
+            UNORDERED_SHORT_FLAG,
+            UNORDERED_LONG_FLAG
+        ) + flag(
+            "Make each " + ASYNC_LONG_FLAG + " buffer <bytes> long (default is " + DEFAULT_BUFFER_SIZE + ")",
+            BUFFER_SIZE_SHORT_FLAG + " <bytes>",
+            BUFFER_SIZE_LONG_FLAG + " <bytes>"
         ) + "\n";
 
     String footer = String.format(
@@ -306,17 +665,70 @@ public final class Main {
     System.exit(exitValue);
   }
 
-  private static Generator getGenerator(String schema, String schemaFile) throws IOException {
+  /**
+   * @return One line of the flags description, naming every form of the flag.
+   */
+  private static String flag(String description, String... names) {
+    return String.format("    %s:\t%s%n", String.join(", ", names), description);
+  }
+
+  private static Schema readSchema(String schema, String schemaFile) {
+    try {
+      return getSchema(schema, schemaFile);
+    } catch (IOException ioe) {
+      System.err.println("Error occurred while trying to read schema file");
+      System.exit(1);
+    }
+    return null;
+  }
+
+  private static Schema getSchema(String schema, String schemaFile) throws IOException {
     if (schema != null) {
-      return new Generator.Builder().schemaString(schema).build();
+      return new Schema.Parser().parse(schema);
     } else if (!schemaFile.equals("-")) {
-      return new Generator.Builder().schemaFile(new File(schemaFile)).build();
+      return new Schema.Parser().parse(new File(schemaFile));
     } else {
       System.err.println("Reading schema from stdin...");
-      return new Generator.Builder().schemaStream(System.in).build();
+      return new Schema.Parser().parse(System.in);
     }
   }
 
+  /**
+   * @return The output, written on a dedicated I/O thread through {@code asyncBuffers} buffers
+   *     unless that is 0. Closing an async output reports how often each side stalled.
+   */
+  private static OutputStream getOutput(String outputFile, int asyncBuffers, int bufferSize)
+      throws IOException {
+    OutputStream output = getOutput(outputFile);
+    if (asyncBuffers == 0) {
+      return output;
+    }
+    AsyncOutputStream async = new AsyncOutputStream(output, asyncBuffers, bufferSize);
+    return new FilterOutputStream(async) {
+      private boolean closed;
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        super.close();
+        System.err.printf(
+            "%s: generation waited for output %s; output waited for generation %s%n",
+            PROGRAM_NAME,
+            async.writerStalls(),
+            async.ioStalls()
+        );
+      }
+    };
+  }
+
   private static OutputStream getOutput(String outputFile) throws IOException {
     if (outputFile != null && !outputFile.equals("-")) {
       return new FileOutputStream(outputFile);
@@ -324,4 +736,55 @@ public final class Main {
       return System.out;
     }
   }
+
+  /**
+   * Counts the bytes passing through to an underlying stream.
+   */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    /**
+     * @return The number of bytes written since the last call.
+     */
+    long drain() {
+      long result = count;
+      count = 0;
+      return result;
+    }
+  }
+
+  /**
+   * Passes writes through to an underlying stream, but never flushes it. Closing still closes it.
+   */
+  static final class UnflushedOutputStream extends FilterOutputStream {
+
+    UnflushedOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void flush() {
+    }
+  }
 }
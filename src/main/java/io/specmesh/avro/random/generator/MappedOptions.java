@@ -0,0 +1,269 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Options read from a binary encoded file that is memory-mapped rather than decoded up front. The
+ * file is scanned once to build an index of where each option starts, and an option is only
+ * decoded when it is picked, so option sets can be larger than the heap.
+ * <p>
+ * Files larger than {@value #MAX_SEGMENT_SIZE} bytes are mapped as several segments, each ending
+ * on an option boundary. The index itself takes four bytes per option.
+ */
+final class MappedOptions extends AbstractList<Object> {
+  static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final Schema schema;
+  private final ByteBuffer[] segments;
+  private final int[] segmentFirst;
+  private final int[] offsets;
+  private final int size;
+
+  private MappedOptions(
+      Schema schema,
+      ByteBuffer[] segments,
+      int[] segmentFirst,
+      int[] offsets,
+      int size) {
+    this.schema = schema;
+    this.segments = segments;
+    this.segmentFirst = segmentFirst;
+    this.offsets = offsets;
+    this.size = size;
+  }
+
+  /**
+   * Maps and indexes an options file.
+   * @param schema The schema of the options in the file.
+   * @param file The file, containing options encoded one after another in the Avro binary format.
+   * @param segmentSize The largest number of bytes to map as one segment.
+   * @return The options in the file.
+   * @throws IOException if the file cannot be read.
+   */
+  static MappedOptions map(Schema schema, Path file, int segmentSize) throws IOException {
+    List<ByteBuffer> segments = new ArrayList<>();
+    List<Integer> segmentFirst = new ArrayList<>();
+    int[] offsets = new int[1024];
+    int size = 0;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      long position = 0;
+      while (position < fileSize) {
+        long length = Math.min(fileSize - position, segmentSize);
+        boolean last = position + length == fileSize;
+        ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        ByteBufferInputStream in = new ByteBufferInputStream(segment.duplicate());
+        BinaryDecoder decoder = DecoderFactory.get().directBinaryDecoder(in, null);
+        int first = size;
+        int end = 0;
+        while (end < length) {
+          try {
+            GenericDatumReader.skip(schema, decoder);
+          } catch (EOFException eofe) {
+            if (last) {
+              throw new IOException(String.format("Option %d is truncated", size), eofe);
+            }
+            break;
+          }
+          if (in.position() == end) {
+            throw new IOException("Options that encode to no bytes cannot be mapped");
+          }
+          if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+          }
+          offsets[size++] = end;
+          end = in.position();
+        }
+        if (size == first) {
+          throw new IOException(String.format(
+              "Option %d is larger than %d bytes",
+              size,
+              segmentSize
+          ));
+        }
+        segments.add(segment.limit(end).slice());
+        segmentFirst.add(first);
+        position += end;
+      }
+    }
+    return new MappedOptions(
+        schema,
+        segments.toArray(new ByteBuffer[0]),
+        segmentFirst.stream().mapToInt(Integer::intValue).toArray(),
+        offsets,
+        size
+    );
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Object get(int index) {
+    return reader(0).read(index);
+  }
+
+  /**
+   * @param cacheSize The number of decoded options to keep, so that options picked again are not
+   *                  decoded again.
+   * @return A reader for a single thread to pick options with.
+   */
+  Reader reader(int cacheSize) {
+    return new Reader(cacheSize);
+  }
+
+  /**
+   * Decodes or copies options out of the mapped file. Each reader has its own views of the mapped
+   * segments and its own buffers, so it must only be used by one thread at a time.
+   */
+  final class Reader {
+    private final ByteBuffer[] views;
+    private final DatumReader<Object> datumReader = new GenericDatumReader<>(schema);
+    private final Object[] cached;
+    private final int[] cachedIndex;
+    private BinaryDecoder decoder;
+    private byte[] scratch = new byte[64];
+
+    private Reader(int cacheSize) {
+      this.views = new ByteBuffer[segments.length];
+      for (int i = 0; i < segments.length; i++) {
+        views[i] = segments[i].duplicate();
+      }
+      this.cached = new Object[cacheSize];
+      this.cachedIndex = new int[cacheSize];
+      Arrays.fill(cachedIndex, -1);
+    }
+
+    /**
+     * @return The decoded option at {@code index}.
+     */
+    Object read(int index) {
+      int slot = cached.length == 0 ? -1 : index % cached.length;
+      if (slot >= 0 && cachedIndex[slot] == index) {
+        return cached[slot];
+      }
+      int length = copy(index);
+      decoder = DecoderFactory.get().binaryDecoder(scratch, 0, length, decoder);
+      Object option;
+      try {
+        option = datumReader.read(null, decoder);
+      } catch (IOException ioe) {
+        throw new UncheckedIOException(ioe);
+      }
+      if (slot >= 0) {
+        cached[slot] = option;
+        cachedIndex[slot] = index;
+      }
+      return option;
+    }
+
+    /**
+     * Writes the option at {@code index} as it is encoded in the file, without decoding it.
+     */
+    void write(int index, BinaryEncoder encoder) throws IOException {
+      int length = copy(index);
+      encoder.writeFixed(scratch, 0, length);
+    }
+
+    /**
+     * Copies the encoded option at {@code index} to the start of the scratch buffer.
+     * @return The length of the option in bytes.
+     */
+    private int copy(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException(String.format("Option %d of %d", index, size));
+      }
+      int segment = Arrays.binarySearch(segmentFirst, index);
+      if (segment < 0) {
+        segment = -segment - 2;
+      }
+      ByteBuffer view = views[segment];
+      int nextSegmentFirst = segment + 1 == segmentFirst.length ? size : segmentFirst[segment + 1];
+      int start = offsets[index];
+      int end = index + 1 == nextSegmentFirst ? view.limit() : offsets[index + 1];
+      int length = end - start;
+      scratch = ValueGenerators.ensureCapacity(scratch, length);
+      view.position(start);
+      view.get(scratch, 0, length);
+      return length;
+    }
+  }
+
+  /**
+   * Reads through a buffer, signalling its end with {@link EOFException} so that a partial option
+   * at the end of a segment can be told apart from a complete one.
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    int position() {
+      return buffer.position();
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!buffer.hasRemaining()) {
+        throw new EOFException();
+      }
+      return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length > buffer.remaining()) {
+        throw new EOFException();
+      }
+      buffer.get(bytes, offset, length);
+      return length;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+      if (count > buffer.remaining()) {
+        throw new EOFException();
+      }
+      buffer.position(buffer.position() + (int) count);
+      return count;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable, growable direct buffer for encoded records. Channels write direct buffers as they
+ * are, where a heap buffer would first be copied into a temporary direct one.
+ */
+final class OffHeapBuffer extends OutputStream {
+
+  private ByteBuffer buffer;
+
+  OffHeapBuffer(int capacity) {
+    this.buffer = ByteBuffer.allocateDirect(capacity);
+  }
+
+  @Override
+  public void write(int b) {
+    ensureRemaining(1);
+    buffer.put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    ensureRemaining(len);
+    buffer.put(b, off, len);
+  }
+
+  /**
+   * @return The number of bytes written since the last {@link #reset()}.
+   */
+  int size() {
+    return buffer.position();
+  }
+
+  /**
+   * Discards the buffer's contents, keeping its capacity.
+   */
+  void reset() {
+    buffer.clear();
+  }
+
+  /**
+   * @return A view of the bytes written since the last {@link #reset()}. It is only valid until
+   *     the buffer is next written to.
+   */
+  ByteBuffer view() {
+    ByteBuffer view = buffer.duplicate();
+    view.flip();
+    return view;
+  }
+
+  private void ensureRemaining(int length) {
+    if (buffer.remaining() >= length) {
+      return;
+    }
+    long needed = (long) buffer.position() + length;
+    if (needed > Integer.MAX_VALUE) {
+      throw new RuntimeException(String.format(
+          "Cannot buffer more than %d bytes",
+          Integer.MAX_VALUE
+      ));
+    }
+    ByteBuffer grown = ByteBuffer.allocateDirect(
+        (int) Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * buffer.capacity())));
+    buffer.flip();
+    buffer = grown.put(buffer);
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.util.Utf8;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Options for a primitive schema, packed into a primitive array, or for strings into a single
+ * UTF-8 arena with offsets, rather than held as one boxed object per option. Options are written
+ * straight from the array. Only once {@link #get(int)} is first called are they all boxed, or
+ * decoded, into a view that every later call shares, so picks for {@code generate()} do not
+ * allocate; plans that only write never pay for the boxed view.
+ */
+abstract class OptionPool extends AbstractList<Object> {
+
+  private volatile Object[] boxed;
+
+  /**
+   * Packs {@code options} into a pool if the schema has a primitive representation.
+   * @param schema The schema of the options.
+   * @param options The options, already validated against {@code schema}.
+   * @return A pool of the options, or {@code options} itself if they cannot be packed.
+   */
+  static List<Object> pack(Schema schema, List<Object> options) {
+    switch (schema.getType()) {
+      case INT:
+        return allInstancesOf(options, Integer.class) ? new IntPool(options) : options;
+      case LONG:
+        return allInstancesOf(options, Long.class) ? new LongPool(options) : options;
+      case FLOAT:
+        return allInstancesOf(options, Float.class) ? new FloatPool(options) : options;
+      case DOUBLE:
+        return allInstancesOf(options, Double.class) ? new DoublePool(options) : options;
+      case STRING:
+        return allInstancesOf(options, CharSequence.class) ? new StringPool(options) : options;
+      default:
+        return options;
+    }
+  }
+
+  private static boolean allInstancesOf(List<Object> options, Class<?> type) {
+    return options.stream().allMatch(type::isInstance);
+  }
+
+  @Override
+  public final Object get(int index) {
+    Object[] view = boxed;
+    if (view == null) {
+      // Threads racing to build the view build equal ones, so any of them may win
+      view = new Object[size()];
+      for (int i = 0; i < view.length; i++) {
+        view[i] = box(i);
+      }
+      boxed = view;
+    }
+    return view[index];
+  }
+
+  /**
+   * @return A new boxed, or decoded, copy of the option at {@code index}.
+   */
+  abstract Object box(int index);
+
+  /**
+   * Writes the option at {@code index} to {@code encoder}.
+   */
+  abstract void write(int index, BinaryEncoder encoder) throws IOException;
+
+  static final class IntPool extends OptionPool {
+    private final int[] values;
+
+    IntPool(List<Object> options) {
+      this.values = options.stream().mapToInt(option -> (Integer) option).toArray();
+    }
+
+    @Override
+    Object box(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    void write(int index, BinaryEncoder encoder) throws IOException {
+      encoder.writeInt(values[index]);
+    }
+  }
+
+  static final class LongPool extends OptionPool {
+    private final long[] values;
+
+    LongPool(List<Object> options) {
+      this.values = options.stream().mapToLong(option -> (Long) option).toArray();
+    }
+
+    @Override
+    Object box(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    void write(int index, BinaryEncoder encoder) throws IOException {
+      encoder.writeLong(values[index]);
+    }
+  }
+
+  static final class FloatPool extends OptionPool {
+    private final float[] values;
+
+    FloatPool(List<Object> options) {
+      this.values = new float[options.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = (Float) options.get(i);
+      }
+    }
+
+    @Override
+    Object box(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    void write(int index, BinaryEncoder encoder) throws IOException {
+      encoder.writeFloat(values[index]);
+    }
+  }
+
+  static final class DoublePool extends OptionPool {
+    private final double[] values;
+
+    DoublePool(List<Object> options) {
+      this.values = options.stream().mapToDouble(option -> (Double) option).toArray();
+    }
+
+    @Override
+    Object box(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    void write(int index, BinaryEncoder encoder) throws IOException {
+      encoder.writeDouble(values[index]);
+    }
+  }
+
+  /**
+   * Strings packed as UTF-8 one after another, with the option at index {@code i} spanning
+   * {@code offsets[i]} to {@code offsets[i + 1]}. Options that were all {@link Utf8}, as decoded
+   * from an options file, are boxed as {@link Utf8} again, and any others as {@link String}.
+   */
+  static final class StringPool extends OptionPool {
+    private final byte[] arena;
+    private final int[] offsets;
+    private final boolean utf8;
+
+    StringPool(List<Object> options) {
+      this.utf8 = allInstancesOf(options, Utf8.class);
+      byte[][] encoded = new byte[options.size()][];
+      this.offsets = new int[options.size() + 1];
+      for (int i = 0; i < encoded.length; i++) {
+        encoded[i] = options.get(i).toString().getBytes(StandardCharsets.UTF_8);
+        offsets[i + 1] = offsets[i] + encoded[i].length;
+      }
+      this.arena = new byte[offsets[encoded.length]];
+      for (int i = 0; i < encoded.length; i++) {
+        System.arraycopy(encoded[i], 0, arena, offsets[i], encoded[i].length);
+      }
+    }
+
+    @Override
+    Object box(int index) {
+      int length = offsets[index + 1] - offsets[index];
+      if (utf8) {
+        byte[] bytes = new byte[length];
+        System.arraycopy(arena, offsets[index], bytes, 0, length);
+        return new Utf8(bytes);
+      }
+      return new String(arena, offsets[index], length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+      return offsets.length - 1;
+    }
+
+    @Override
+    void write(int index, BinaryEncoder encoder) throws IOException {
+      encoder.writeBytes(arena, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds a producer to the rate of a {@link RateProfile} with a token bucket. Permits accrue at the
+ * profile's current rate, up to a small burst allowance, and each {@link #acquire(long)} spends
+ * them. A caller that overspends only waits once its debt is worth at least
+ * {@link #MIN_WAIT_NANOS}; smaller debts carry over to later calls. Records are therefore released
+ * in short batches between waits rather than with a sleep per record, which keeps the average rate
+ * exact without depending on the precision of the OS timer.
+ *
+ * <p>Not thread-safe.
+ */
+final class Pacer {
+
+  static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /**
+   * A pacer that never waits.
+   */
+  static final Pacer UNLIMITED = new Pacer(null, () -> 0L, nanos -> { });
+
+  private static final double MAX_BURST_SECONDS = 0.01;
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final RateProfile profile;
+  private final LongSupplier clock;
+  private final LongConsumer sleeper;
+  private final long start;
+  private long last;
+  private double permits;
+
+  Pacer(RateProfile profile) {
+    this(profile, System::nanoTime, LockSupport::parkNanos);
+  }
+
+  Pacer(RateProfile profile, LongSupplier clock, LongConsumer sleeper) {
+    this.profile = profile;
+    this.clock = clock;
+    this.sleeper = sleeper;
+    this.start = clock.getAsLong();
+    this.last = start;
+  }
+
+  /**
+   * Spends {@code count} permits, waiting first if that leaves too large a debt. Returns early,
+   * with the interrupt flag still set, if the calling thread is interrupted.
+   * @param count The number of permits to spend; records or bytes, depending on the profile.
+   */
+  void acquire(long count) {
+    if (profile == null) {
+      return;
+    }
+    double rate = refill();
+    permits -= count;
+    while (permits < 0) {
+      long wait = rate > 0 ? (long) (-permits / rate * NANOS_PER_SECOND) : MIN_WAIT_NANOS;
+      if (wait < MIN_WAIT_NANOS && rate > 0) {
+        return;
+      }
+      sleeper.accept(wait);
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      rate = refill();
+    }
+  }
+
+  private double refill() {
+    long now = clock.getAsLong();
+    double rate = profile.rate(now - start);
+    double burst = Math.max(rate * MAX_BURST_SECONDS, 1);
+    permits = Math.min(permits + rate * (now - last) / NANOS_PER_SECOND, burst);
+    last = now;
+    return rate;
+  }
+}
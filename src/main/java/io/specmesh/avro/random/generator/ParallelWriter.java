@@ -0,0 +1,407 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryData;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Generates and encodes records on several threads, writing them through a single output.
+ *
+ * <p>The iteration space is split into batches of {@link #BATCH_SIZE} records. Each thread owns a
+ * {@link Generator} seeded from its own derived seed, and {@link Generator#seek(long) seeks} it to
+ * the first record of every batch it generates, so iteration properties come out exactly as they
+ * would from a single generator. In ordered mode batches are assigned to threads round-robin and
+ * written strictly in sequence; in unordered mode threads claim the next free batch and batches
+ * are written as soon as they are ready.
+ *
+ * <p>Unpaced binary output skips the container file writer's per-record copy: each thread encodes
+ * a batch into an off-heap buffer drawn from a shared pool, the batch is written as one container
+ * block with a single gather write, and the buffer goes back to the pool.
+ */
+final class ParallelWriter {
+
+  static final int BATCH_SIZE = 1_000;
+
+  private static final int QUEUED_BATCHES_PER_THREAD = 4;
+
+  private static final int INITIAL_BLOCK_CAPACITY = 64 * 1024;
+
+  private static final int SYNC_SIZE = 16;
+
+  private static final int MAX_VARLONG_SIZE = 10;
+
+  private final Schema schema;
+  private final int threads;
+  private final boolean ordered;
+  private final RandomAlgorithm algorithm;
+  private final long seed;
+  private final Keyspace keyspace;
+
+  ParallelWriter(Schema schema, int threads, boolean ordered, RandomAlgorithm algorithm, long seed) {
+    this(schema, threads, ordered, algorithm, seed, null);
+  }
+
+  /**
+   * @param keyspace The keyspace shared by all threads' generators, or null for none.
+   */
+  ParallelWriter(
+      Schema schema,
+      int threads,
+      boolean ordered,
+      RandomAlgorithm algorithm,
+      long seed,
+      Keyspace keyspace) {
+    this.schema = schema;
+    this.threads = threads;
+    this.ordered = ordered;
+    this.algorithm = algorithm;
+    this.seed = seed;
+    this.keyspace = keyspace;
+  }
+
+  void writeJson(long iterations, OutputStream output, boolean pretty) throws IOException {
+    writeJson(iterations, output, pretty, Pacer.UNLIMITED, Pacer.UNLIMITED);
+  }
+
+  /**
+   * Writes records as JSON, holding to the rates of the given pacers. JSON batches are written
+   * whole, so they are paced a batch at a time.
+   */
+  void writeJson(long iterations, OutputStream output, boolean pretty, Pacer records, Pacer bytes)
+      throws IOException {
+    // Matches the separator the Avro JSON encoder places between consecutive records
+    byte[] separator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    run(iterations, () -> new JsonBatchEncoder(pretty), (index, batch) -> {
+      records.acquire(batch.count);
+      bytes.acquire(batch.data.length);
+      if (index > 0) {
+        output.write(separator);
+      }
+      output.write(batch.data);
+    });
+    output.write('\n');
+  }
+
+  void writeBinary(long iterations, OutputStream output) throws IOException {
+    writeBinary(iterations, output, Pacer.UNLIMITED, Pacer.UNLIMITED);
+  }
+
+  /**
+   * Writes records as an Avro container file, pacing each record as it is appended. Without pacing,
+   * each batch is written as a whole container block instead.
+   */
+  void writeBinary(long iterations, OutputStream output, Pacer records, Pacer bytes)
+      throws IOException {
+    if (records == Pacer.UNLIMITED && bytes == Pacer.UNLIMITED) {
+      writeBlocks(iterations, output);
+      return;
+    }
+    DatumWriter<Object> dataWriter = new GenericDatumWriter<>(schema);
+    try (DataFileWriter<Object> dataFileWriter =
+             new DataFileWriter<>(dataWriter).create(schema, output)) {
+      run(iterations, BinaryBatchEncoder::new, (index, batch) -> {
+        int start = 0;
+        for (int end : batch.recordEnds) {
+          records.acquire(1);
+          bytes.acquire(end - start);
+          dataFileWriter.appendEncoded(ByteBuffer.wrap(batch.data, start, end - start));
+          start = end;
+        }
+      });
+    }
+  }
+
+  /**
+   * Writes an Avro container file, with the null codec, whose blocks are the batches themselves.
+   */
+  private void writeBlocks(long iterations, OutputStream output) throws IOException {
+    byte[] sync = new byte[SYNC_SIZE];
+    ThreadLocalRandom.current().nextBytes(sync);
+    try (DataFileWriter<Object> header = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+      // Only writes the header, and leaves the output open
+      header.create(schema, new FilterOutputStream(output) {
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      }, sync);
+    }
+    output.flush();
+    WritableByteChannel channel = output instanceof FileOutputStream
+        ? ((FileOutputStream) output).getChannel()
+        : Channels.newChannel(output);
+    Queue<OffHeapBuffer> pool = new ConcurrentLinkedQueue<>();
+    ByteBuffer[] block = {
+        ByteBuffer.allocateDirect(2 * MAX_VARLONG_SIZE),
+        null,
+        ByteBuffer.allocateDirect(SYNC_SIZE).put(sync)
+    };
+    byte[] counts = new byte[2 * MAX_VARLONG_SIZE];
+    run(iterations, () -> new BlockBatchEncoder(pool), (index, batch) -> {
+      int length = BinaryData.encodeLong(batch.count, counts, 0);
+      length += BinaryData.encodeLong(batch.block.size(), counts, length);
+      block[0].clear();
+      block[0].put(counts, 0, length).flip();
+      block[1] = batch.block.view();
+      block[2].rewind();
+      write(channel, block);
+      pool.offer(batch.block);
+    });
+    output.flush();
+  }
+
+  private static void write(WritableByteChannel channel, ByteBuffer[] buffers) throws IOException {
+    if (channel instanceof GatheringByteChannel) {
+      GatheringByteChannel gathering = (GatheringByteChannel) channel;
+      while (buffers[buffers.length - 1].hasRemaining()) {
+        gathering.write(buffers);
+      }
+      return;
+    }
+    for (ByteBuffer buffer : buffers) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  private void run(long iterations, Supplier<BatchEncoder> encoders, BatchSink sink)
+      throws IOException {
+    long batches = (iterations + BATCH_SIZE - 1) / BATCH_SIZE;
+    int workers = (int) Math.max(1, Math.min(threads, batches));
+    List<BlockingQueue<Batch>> queues = new ArrayList<>();
+    for (int i = 0; i < (ordered ? workers : 1); i++) {
+      queues.add(new ArrayBlockingQueue<>(QUEUED_BATCHES_PER_THREAD * (ordered ? 1 : workers)));
+    }
+
+    List<Random> randoms = algorithm.streams(seed, workers);
+    // Every worker's clocks start from the same instant
+    long clockEpoch = System.currentTimeMillis();
+    AtomicLong nextBatch = new AtomicLong(0);
+    ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+      Thread thread = new Thread(runnable, "arg-generator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (int worker = 0; worker < workers; worker++) {
+        Generator generator = new Generator.Builder()
+            .schema(schema)
+            .random(randoms.get(worker))
+            .keyspace(keyspace)
+            .clockEpoch(clockEpoch)
+            .build();
+        BatchEncoder encoder = encoders.get();
+        BlockingQueue<Batch> queue = queues.get(ordered ? worker : 0);
+        BatchSequence sequence = ordered
+            ? new RoundRobinSequence(worker, workers)
+            : nextBatch::getAndIncrement;
+        executor.execute(() -> produce(generator, encoder, sequence, iterations, queue));
+      }
+      for (long index = 0; index < batches; index++) {
+        Batch batch = queues.get(ordered ? (int) (index % workers) : 0).take();
+        if (batch.error != null) {
+          throw new IOException("Failed to generate records", batch.error);
+        }
+        sink.write(index, batch);
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for generated records");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void produce(
+      Generator generator,
+      BatchEncoder encoder,
+      BatchSequence sequence,
+      long iterations,
+      BlockingQueue<Batch> queue) {
+    try {
+      try {
+        for (long index = sequence.next(); index * BATCH_SIZE < iterations; index = sequence.next()) {
+          long first = index * BATCH_SIZE;
+          generator.seek(first);
+          queue.put(encoder.encode(generator, (int) Math.min(BATCH_SIZE, iterations - first)));
+        }
+      } catch (IOException | RuntimeException e) {
+        queue.put(new Batch(e));
+      }
+    } catch (InterruptedException ie) {
+      // The writer has stopped; nothing left to do
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private interface BatchSequence {
+    long next();
+  }
+
+  private static final class RoundRobinSequence implements BatchSequence {
+    private final int step;
+    private long next;
+
+    RoundRobinSequence(int first, int step) {
+      this.next = first;
+      this.step = step;
+    }
+
+    @Override
+    public long next() {
+      long result = next;
+      next += step;
+      return result;
+    }
+  }
+
+  private interface BatchSink {
+    void write(long index, Batch batch) throws IOException;
+  }
+
+  private interface BatchEncoder {
+    Batch encode(Generator generator, int count) throws IOException;
+  }
+
+  private final class JsonBatchEncoder implements BatchEncoder {
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DatumWriter<Object> dataWriter = new GenericDatumWriter<>(schema);
+    private final boolean pretty;
+
+    JsonBatchEncoder(boolean pretty) {
+      this.pretty = pretty;
+    }
+
+    @Override
+    public Batch encode(Generator generator, int count) throws IOException {
+      buffer.reset();
+      Encoder encoder = EncoderFactory.get().jsonEncoder(schema, buffer, pretty);
+      for (int i = 0; i < count; i++) {
+        dataWriter.write(generator.generate(), encoder);
+      }
+      encoder.flush();
+      return new Batch(buffer.toByteArray(), count, null);
+    }
+  }
+
+  private final class BinaryBatchEncoder implements BatchEncoder {
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private BinaryEncoder encoder;
+
+    @Override
+    public Batch encode(Generator generator, int count) throws IOException {
+      buffer.reset();
+      encoder = EncoderFactory.get().directBinaryEncoder(buffer, encoder);
+      int[] recordEnds = new int[count];
+      for (int i = 0; i < count; i++) {
+        generator.write(encoder);
+        recordEnds[i] = buffer.size();
+      }
+      return new Batch(buffer.toByteArray(), count, recordEnds);
+    }
+  }
+
+  /**
+   * Encodes batches into off-heap buffers from a pool shared with the writer, which returns each
+   * buffer once it has been written.
+   */
+  private static final class BlockBatchEncoder implements BatchEncoder {
+    private final Queue<OffHeapBuffer> pool;
+    private BinaryEncoder encoder;
+
+    BlockBatchEncoder(Queue<OffHeapBuffer> pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public Batch encode(Generator generator, int count) throws IOException {
+      OffHeapBuffer buffer = pool.poll();
+      if (buffer == null) {
+        buffer = new OffHeapBuffer(INITIAL_BLOCK_CAPACITY);
+      }
+      buffer.reset();
+      encoder = EncoderFactory.get().directBinaryEncoder(buffer, encoder);
+      for (int i = 0; i < count; i++) {
+        generator.write(encoder);
+      }
+      return new Batch(buffer, count);
+    }
+  }
+
+  private static final class Batch {
+    private final byte[] data;
+    private final OffHeapBuffer block;
+    private final int count;
+    private final int[] recordEnds;
+    private final Exception error;
+
+    Batch(byte[] data, int count, int[] recordEnds) {
+      this.data = data;
+      this.block = null;
+      this.count = count;
+      this.recordEnds = recordEnds;
+      this.error = null;
+    }
+
+    Batch(OffHeapBuffer block, int count) {
+      this.data = null;
+      this.block = block;
+      this.count = count;
+      this.recordEnds = null;
+      this.error = null;
+    }
+
+    Batch(Exception error) {
+      this.data = null;
+      this.block = null;
+      this.count = 0;
+      this.recordEnds = null;
+      this.error = error;
+    }
+  }
+}
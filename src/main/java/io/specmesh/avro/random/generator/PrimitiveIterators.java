@@ -0,0 +1,234 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Primitive-arithmetic versions of the iterators behind {@value Generator#ITERATION_PROP}. They
+ * produce exactly the values of the {@link BigInteger} and {@link BigDecimal} based iterators in
+ * {@link Generator}, but only apply when every intermediate value is known to fit in a
+ * {@code long}; the factory methods return {@code null} otherwise, and the caller falls back to the
+ * arbitrary-precision iterators.
+ */
+final class PrimitiveIterators {
+
+  /**
+   * The largest power of ten that, like every integer up to 2<sup>53</sup>, is exactly
+   * representable as a double, so dividing one by the other is correctly rounded.
+   */
+  private static final int MAX_DOUBLE_SCALE = 22;
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+  /**
+   * As {@link #MAX_DOUBLE_SCALE}, but for floats.
+   */
+  private static final int MAX_FLOAT_SCALE = 10;
+  private static final long MAX_EXACT_FLOAT = 1L << 24;
+
+  private static final double[] POWERS_OF_TEN = new double[MAX_DOUBLE_SCALE + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private PrimitiveIterators() {
+  }
+
+  /**
+   * @return A primitive iterator with the semantics of {@code Generator.IntegralIterator}, or
+   *     {@code null} if its arithmetic could overflow a {@code long}.
+   */
+  static Generator.SeekableIterator integral(
+      long start, long restart, long step, long initial, long count, boolean asInt) {
+    try {
+      long modulo = Math.abs(Math.subtractExact(restart, start));
+      long initialOffset = Math.subtractExact(initial, start);
+      if (modulo == 0 || step == 0 || !negatable(modulo, initialOffset, step, start)) {
+        return null;
+      }
+      // Offsets start at initialOffset and stay within (-modulo, modulo) from then on
+      long maxOffset = Math.max(modulo, Math.abs(initialOffset));
+      Math.addExact(maxOffset, Math.abs(step));
+      Math.addExact(Math.abs(start), maxOffset);
+      return new LongIterator(start, modulo, step, initialOffset, count, asInt);
+    } catch (ArithmeticException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return A primitive iterator with the semantics of {@code Generator.DecimalIterator}, or
+   *     {@code null} if the values cannot all be held as exact multiples of a common power of ten
+   *     within a {@code long}.
+   */
+  static Generator.SeekableIterator decimal(
+      double start, double restart, double step, double initial, long count, boolean asFloat) {
+    BigDecimal[] values = {
+        BigDecimal.valueOf(start),
+        BigDecimal.valueOf(restart),
+        BigDecimal.valueOf(step),
+        BigDecimal.valueOf(initial)
+    };
+    int scale = 0;
+    for (BigDecimal value : values) {
+      scale = Math.max(scale, value.scale());
+    }
+    if (scale > (asFloat ? MAX_FLOAT_SCALE : MAX_DOUBLE_SCALE)) {
+      return null;
+    }
+    try {
+      long scaledStart = values[0].setScale(scale).unscaledValue().longValueExact();
+      long scaledRestart = values[1].setScale(scale).unscaledValue().longValueExact();
+      long scaledStep = values[2].setScale(scale).unscaledValue().longValueExact();
+      long scaledInitial = values[3].setScale(scale).unscaledValue().longValueExact();
+      long modulo = Math.subtractExact(scaledRestart, scaledStart);
+      long initialOffset = Math.subtractExact(scaledInitial, scaledStart);
+      if (modulo == 0 || scaledStep == 0 || !negatable(modulo, initialOffset, scaledStep, scaledStart)) {
+        return null;
+      }
+      long maxOffset = Math.max(Math.abs(modulo), Math.abs(initialOffset));
+      Math.addExact(maxOffset, Math.abs(scaledStep));
+      // Every value must convert to floating point exactly as BigDecimal would convert it
+      if (Math.addExact(Math.abs(scaledStart), maxOffset) > (asFloat ? MAX_EXACT_FLOAT : MAX_EXACT_DOUBLE)) {
+        return null;
+      }
+      return new ScaledDecimalIterator(
+          scaledStart, modulo, scaledStep, initialOffset, scale, count, asFloat);
+    } catch (ArithmeticException e) {
+      return null;
+    }
+  }
+
+  private static boolean negatable(long... values) {
+    for (long value : values) {
+      if (value == Long.MIN_VALUE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes {@code (count * step + offset) op modulo} exactly, for seeks far enough ahead that the
+   * product overflows a {@code long}. The result is always smaller than {@code modulo}.
+   */
+  private static long remainder(long count, long step, long offset, long modulo, boolean absolute) {
+    try {
+      long value = Math.addExact(Math.multiplyExact(count, step), offset);
+      return absolute ? Math.abs(value) % modulo : value % modulo;
+    } catch (ArithmeticException e) {
+      BigInteger value = BigInteger.valueOf(count)
+          .multiply(BigInteger.valueOf(step))
+          .add(BigInteger.valueOf(offset));
+      BigInteger divisor = BigInteger.valueOf(modulo);
+      return absolute
+          ? value.abs().mod(divisor.abs()).longValueExact()
+          : value.remainder(divisor).longValueExact();
+    }
+  }
+
+  private static final class LongIterator implements Generator.SeekableIterator {
+    private final long start;
+    private final long modulo;
+    private final long step;
+    private final long sign;
+    private final long initialOffset;
+    private final boolean asInt;
+    private long current;
+
+    LongIterator(long start, long modulo, long step, long initialOffset, long count, boolean asInt) {
+      this.start = start;
+      this.modulo = modulo;
+      this.step = step;
+      this.sign = Long.signum(step);
+      this.initialOffset = initialOffset;
+      this.asInt = asInt;
+      seek(count);
+    }
+
+    @Override
+    public void seek(long count) {
+      current = count > 0 ? remainder(count, step, initialOffset, modulo, true) * sign : initialOffset;
+    }
+
+    @Override
+    public Object next() {
+      long result = current + start;
+      current = (Math.abs(current + step) % modulo) * sign;
+      return asInt ? (Object) (int) result : (Object) result;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return true;
+    }
+  }
+
+  private static final class ScaledDecimalIterator implements Generator.SeekableIterator {
+    private final long start;
+    private final long modulo;
+    private final long step;
+    private final long initialOffset;
+    private final double divisor;
+    private final boolean asFloat;
+    private long current;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    ScaledDecimalIterator(
+        long start,
+        long modulo,
+        long step,
+        long initialOffset,
+        int scale,
+        long count,
+        boolean asFloat) {
+      this.start = start;
+      this.modulo = modulo;
+      this.step = step;
+      this.initialOffset = initialOffset;
+      this.divisor = POWERS_OF_TEN[scale];
+      this.asFloat = asFloat;
+      seek(count);
+    }
+
+    @Override
+    public void seek(long count) {
+      current = count > 0 ? remainder(count, step, initialOffset, modulo, false) : initialOffset;
+    }
+
+    @Override
+    public Object next() {
+      long result = current + start;
+      current = (current + step) % modulo;
+      // Both operands are exactly representable, so the division is correctly rounded, just as
+      // BigDecimal's conversion is
+      return asFloat
+          ? (Object) ((float) result / (float) divisor)
+          : (Object) (result / divisor);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return true;
+    }
+  }
+}
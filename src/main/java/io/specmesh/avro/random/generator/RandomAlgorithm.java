@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * The pseudo-random number generators that a {@link Generator} can be built with. Every value the
+ * generator produces starts with a call to its {@link Random}, so a generator without
+ * {@link Random}'s per-call atomic update makes a noticeable difference to throughput.
+ */
+public enum RandomAlgorithm {
+
+  /**
+   * {@link Random} itself. Thread-safe, but slowest.
+   */
+  JDK("jdk") {
+    @Override
+    public Random create(long seed) {
+      return new Random(seed);
+    }
+
+    @Override
+    public Supplier<Random> streams(long seed) {
+      SplittableRandom seeds = new SplittableRandom(seed);
+      return () -> new Random(seeds.nextLong());
+    }
+  },
+
+  /**
+   * {@link SplittableRandom}, through a {@link SplittableRandomAdapter}.
+   */
+  SPLITTABLE("splittable") {
+    @Override
+    public Random create(long seed) {
+      return new SplittableRandomAdapter(seed);
+    }
+
+    @Override
+    public Supplier<Random> streams(long seed) {
+      return new SplittableRandomAdapter(seed)::split;
+    }
+  },
+
+  /**
+   * xoroshiro128++, through a {@link Xoroshiro128PlusPlus}.
+   */
+  XOROSHIRO("xoroshiro128pp") {
+    @Override
+    public Random create(long seed) {
+      return new Xoroshiro128PlusPlus(seed);
+    }
+
+    @Override
+    public Supplier<Random> streams(long seed) {
+      return new Xoroshiro128PlusPlus(seed)::jump;
+    }
+  },
+
+  /**
+   * L64X128MixRandom, through an {@link L64X128MixRandom}.
+   */
+  L64X128MIX("l64x128mix") {
+    @Override
+    public Random create(long seed) {
+      return new L64X128MixRandom(seed);
+    }
+
+    @Override
+    public Supplier<Random> streams(long seed) {
+      return new L64X128MixRandom(seed)::split;
+    }
+  };
+
+  private final String algorithmName;
+
+  RandomAlgorithm(String algorithmName) {
+    this.algorithmName = algorithmName;
+  }
+
+  /**
+   * @return The name the algorithm is selected by, as accepted by {@link #forName(String)}.
+   */
+  public String algorithmName() {
+    return algorithmName;
+  }
+
+  /**
+   * @param seed The seed to start from.
+   * @return A new generator of this algorithm. Only {@link #JDK} generators are thread-safe.
+   */
+  public abstract Random create(long seed);
+
+  /**
+   * Derives independent generators from a single seed, for as many workers as need one. The same
+   * seed always produces the same sequence of streams.
+   * @param seed The seed to derive all streams from.
+   * @return A supplier of new generators of this algorithm. The supplier itself is not
+   *     thread-safe.
+   */
+  public abstract Supplier<Random> streams(long seed);
+
+  /**
+   * @param seed The seed to derive all streams from.
+   * @param count The number of streams to create.
+   * @return The first {@code count} generators that {@link #streams(long)} supplies.
+   */
+  public List<Random> streams(long seed, int count) {
+    Supplier<Random> streams = streams(seed);
+    List<Random> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(streams.get());
+    }
+    return result;
+  }
+
+  /**
+   * @param name An algorithm name, ignoring case.
+   * @return The algorithm with the given name.
+   */
+  public static RandomAlgorithm forName(String name) {
+    for (RandomAlgorithm algorithm : values()) {
+      if (algorithm.algorithmName.equals(name.toLowerCase(Locale.ROOT))) {
+        return algorithm;
+      }
+    }
+    throw new RuntimeException(String.format(
+        "Unknown random algorithm '%s'; expected one of jdk, splittable, xoroshiro128pp, l64x128mix",
+        name
+    ));
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A target rate, in records or bytes per second, that may vary over time. Profiles are evaluated
+ * against the time elapsed since generation started, so that load curves such as a ramp-up or a
+ * daily cycle can be reproduced.
+ */
+@FunctionalInterface
+public interface RateProfile {
+
+  /**
+   * @param elapsedNanos The time since generation started, in nanoseconds.
+   * @return The target rate at that time, per second. Never negative.
+   */
+  double rate(long elapsedNanos);
+
+  /**
+   * @param rate The rate to hold, per second.
+   * @return A profile that always targets {@code rate}.
+   */
+  static RateProfile constant(double rate) {
+    checkRate(rate);
+    return elapsedNanos -> rate;
+  }
+
+  /**
+   * @param from The rate at the start, per second.
+   * @param to The rate to reach, per second.
+   * @param duration How long to take to get from {@code from} to {@code to}.
+   * @return A profile that changes linearly from {@code from} to {@code to} over
+   *     {@code duration}, and then holds at {@code to}.
+   */
+  static RateProfile ramp(double from, double to, Duration duration) {
+    checkRate(from);
+    checkRate(to);
+    long nanos = checkDuration(duration);
+    return elapsedNanos -> elapsedNanos >= nanos
+        ? to
+        : from + (to - from) * ((double) elapsedNanos / nanos);
+  }
+
+  /**
+   * @param mean The average rate, per second.
+   * @param amplitude How far above and below {@code mean} the rate swings, per second.
+   * @param period How long one full cycle takes.
+   * @return A profile that follows a sine wave, starting at {@code mean} and rising first.
+   */
+  static RateProfile sine(double mean, double amplitude, Duration period) {
+    checkRate(mean - Math.abs(amplitude));
+    long nanos = checkDuration(period);
+    return elapsedNanos ->
+        mean + amplitude * Math.sin(2 * Math.PI * (elapsedNanos % nanos) / nanos);
+  }
+
+  /**
+   * @param duration How long to hold each rate.
+   * @param rates The rates to step through, per second.
+   * @return A profile that holds each of {@code rates} in turn for {@code duration}, starting
+   *     again from the first once all have been held.
+   */
+  static RateProfile step(Duration duration, double... rates) {
+    if (rates.length == 0) {
+      throw new RuntimeException("Step rate profile requires at least one rate");
+    }
+    for (double rate : rates) {
+      checkRate(rate);
+    }
+    double[] steps = Arrays.copyOf(rates, rates.length);
+    long nanos = checkDuration(duration);
+    return elapsedNanos -> steps[(int) ((elapsedNanos / nanos) % steps.length)];
+  }
+
+  /**
+   * Parses a profile from its textual form, which is one of:
+   * <ul>
+   *   <li>{@code <rate>}, for a {@link #constant(double) constant} rate</li>
+   *   <li>{@code ramp:<from>:<to>:<duration>}</li>
+   *   <li>{@code sine:<mean>:<amplitude>:<period>}</li>
+   *   <li>{@code step:<duration>:<rate>[,<rate>...]}</li>
+   * </ul>
+   * Durations are a number followed by one of the units {@code ms}, {@code s}, {@code m} or
+   * {@code h}, for example {@code 90s}.
+   * @param spec The textual form of the profile.
+   * @return The parsed profile.
+   */
+  static RateProfile parse(String spec) {
+    String[] parts = spec.split(":");
+    try {
+      switch (parts[0].toLowerCase(Locale.ROOT)) {
+        case "ramp":
+          checkParts(spec, parts, 4);
+          return ramp(
+              Double.parseDouble(parts[1]),
+              Double.parseDouble(parts[2]),
+              parseDuration(parts[3])
+          );
+        case "sine":
+          checkParts(spec, parts, 4);
+          return sine(
+              Double.parseDouble(parts[1]),
+              Double.parseDouble(parts[2]),
+              parseDuration(parts[3])
+          );
+        case "step":
+          checkParts(spec, parts, 3);
+          return step(
+              parseDuration(parts[1]),
+              Arrays.stream(parts[2].split(",")).mapToDouble(Double::parseDouble).toArray()
+          );
+        default:
+          checkParts(spec, parts, 1);
+          return constant(Double.parseDouble(parts[0]));
+      }
+    } catch (NumberFormatException e) {
+      throw new RuntimeException(String.format("Invalid rate profile '%s': %s", spec, e.getMessage()));
+    }
+  }
+
+  private static void checkParts(String spec, String[] parts, int expected) {
+    if (parts.length != expected) {
+      throw new RuntimeException(String.format(
+          "Invalid rate profile '%s': expected %d ':'-separated parts, found %d",
+          spec,
+          expected,
+          parts.length
+      ));
+    }
+  }
+
+  private static Duration parseDuration(String text) {
+    String lower = text.toLowerCase(Locale.ROOT);
+    TimeUnit unit;
+    String amount;
+    if (lower.endsWith("ms")) {
+      unit = TimeUnit.MILLISECONDS;
+      amount = lower.substring(0, lower.length() - 2);
+    } else if (lower.endsWith("s")) {
+      unit = TimeUnit.SECONDS;
+      amount = lower.substring(0, lower.length() - 1);
+    } else if (lower.endsWith("m")) {
+      unit = TimeUnit.MINUTES;
+      amount = lower.substring(0, lower.length() - 1);
+    } else if (lower.endsWith("h")) {
+      unit = TimeUnit.HOURS;
+      amount = lower.substring(0, lower.length() - 1);
+    } else {
+      throw new RuntimeException(String.format(
+          "Invalid duration '%s': expected a unit of ms, s, m or h",
+          text
+      ));
+    }
+    return Duration.ofNanos(unit.toNanos(Long.parseLong(amount)));
+  }
+
+  private static void checkRate(double rate) {
+    if (!(rate >= 0) || Double.isInfinite(rate)) {
+      throw new RuntimeException(String.format("Rate must be finite and non-negative, was %s", rate));
+    }
+  }
+
+  private static long checkDuration(Duration duration) {
+    if (duration.isNegative() || duration.isZero()) {
+      throw new RuntimeException(String.format("Duration must be positive, was %s", duration));
+    }
+    return duration.toNanos();
+  }
+}
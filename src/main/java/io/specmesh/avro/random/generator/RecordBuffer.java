@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A reusable in-memory buffer for encoded records, whose contents can be handed on without the
+ * copy that {@link #toByteArray()} makes.
+ */
+final class RecordBuffer extends ByteArrayOutputStream {
+
+  /**
+   * @return A view of the bytes written since the last {@link #reset()}. It is only valid until
+   *     the buffer is next written to.
+   */
+  ByteBuffer view() {
+    return ByteBuffer.wrap(buf, 0, count);
+  }
+
+  /**
+   * Appends the remaining bytes of {@code src}, which may be a direct buffer, without an
+   * intermediate array.
+   */
+  void write(ByteBuffer src) {
+    int length = src.remaining();
+    if (count + length > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + length));
+    }
+    src.get(buf, count, length);
+    count += length;
+  }
+}
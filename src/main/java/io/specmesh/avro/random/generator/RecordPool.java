@@ -0,0 +1,347 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A fixed pool of records, generated once and binary encoded back to back in a single off-heap
+ * buffer, that {@link Reader readers} then replay for as long as needed. Replaying costs a copy at
+ * most, so a single thread can emit records far faster than it could generate them.
+ *
+ * <p>Two fields can still vary between replays of the same record, for little cost. With a
+ * {@link Keyspace}, its key field is drawn afresh for every record replayed, so a small pool still
+ * spreads its records over the whole keyspace. With a timestamp field, that field is set to the
+ * current time. Neither field is stored in the pool; each record is stored as the segments around
+ * them, and replaying writes the new values between the segments.
+ *
+ * <p>A pool is immutable once built and may be shared between threads, each with its own reader.
+ */
+final class RecordPool {
+
+  private final int size;
+  private final ByteBuffer records;
+  private final int[] offsets;
+  private final MutableField[] mutableFields;
+  private final int[] gaps;
+  private final Object[] keys;
+  private final Keyspace keyspace;
+  private final Schema.Field keyField;
+  private final Schema timestampSchema;
+  private final int timestampBranch;
+
+  /**
+   * Generates the pool's records.
+   * @param generator The generator of the records, whose schema must be a record.
+   * @param size The number of records to generate.
+   * @param keyField The field whose value {@link Reader#key()} reports, or null for none.
+   * @param keyspace The keyspace to redraw the key from on every replay, or null to replay the
+   *     pooled keys. Its field must be {@code keyField}, if that is given.
+   * @param timestampField The field to set to the current time on every replay, or null for none.
+   */
+  RecordPool(
+      Generator generator,
+      int size,
+      String keyField,
+      Keyspace keyspace,
+      String timestampField) {
+    if (size < 1) {
+      throw new RuntimeException(String.format("Record pool size must be at least 1, was %d", size));
+    }
+    Schema schema = generator.schema();
+    this.size = size;
+    this.keyspace = keyspace;
+    this.keyField = field(schema, keyspace != null ? keyspace.field() : keyField);
+    if (keyspace != null && keyField != null && !keyField.equals(keyspace.field())) {
+      throw new RuntimeException(String.format(
+          "Key field %s does not match keyspace field %s",
+          keyField,
+          keyspace.field()
+      ));
+    }
+    Map<Integer, MutableField> mutable = new HashMap<>();
+    if (keyspace != null) {
+      mutable.put(this.keyField.pos(), MutableField.KEY);
+    }
+    Schema.Field timestamp = field(schema, timestampField);
+    if (timestamp == null) {
+      this.timestampBranch = -1;
+      this.timestampSchema = null;
+    } else {
+      this.timestampBranch = timestampBranch(timestamp);
+      this.timestampSchema = timestampBranch < 0
+          ? timestamp.schema()
+          : timestamp.schema().getTypes().get(timestampBranch);
+      if (mutable.put(timestamp.pos(), MutableField.TIMESTAMP) != null) {
+        throw new RuntimeException(String.format(
+            "Timestamp field %s cannot also be the key field",
+            timestampField
+        ));
+      }
+    }
+    this.mutableFields = new MutableField[schema.getFields().size()];
+    mutable.forEach((pos, field) -> mutableFields[pos] = field);
+    this.gaps = new int[size * mutable.size()];
+    this.offsets = new int[size + 1];
+    this.keys = this.keyField != null && keyspace == null ? new Object[size] : null;
+    this.records = encode(generator, mutable.size());
+  }
+
+  private static Schema.Field field(Schema schema, String name) {
+    if (name == null) {
+      return null;
+    }
+    if (schema.getType() != Schema.Type.RECORD || schema.getField(name) == null) {
+      throw new RuntimeException(String.format(
+          "Field %s not found in record pool schema %s",
+          name,
+          schema.getFullName()
+      ));
+    }
+    return schema.getField(name);
+  }
+
+  /**
+   * @return The index of the union branch that timestamps are written as, or -1 if the field is not
+   *     a union.
+   */
+  private static int timestampBranch(Schema.Field field) {
+    if (field.schema().getType() != Schema.Type.UNION) {
+      if (!LogicalTypeGenerators.isTemporal(field.schema())) {
+        throw new RuntimeException(String.format(
+            "Timestamp field %s must be a long, date, time or timestamp, found %s instead",
+            field.name(),
+            field.schema()
+        ));
+      }
+      return -1;
+    }
+    List<Schema> branches = field.schema().getTypes();
+    for (int i = 0; i < branches.size(); i++) {
+      if (LogicalTypeGenerators.isTemporal(branches.get(i))) {
+        return i;
+      }
+    }
+    throw new RuntimeException(String.format(
+        "Timestamp field %s has no long, date, time or timestamp branch",
+        field.name()
+    ));
+  }
+
+  @SuppressWarnings("unchecked")
+  private ByteBuffer encode(Generator generator, int gapCount) {
+    List<Schema.Field> fields = generator.schema().getType() == Schema.Type.RECORD
+        ? generator.schema().getFields()
+        : Collections.emptyList();
+    DatumWriter<Object>[] writers = new DatumWriter[fields.size()];
+    for (Schema.Field field : fields) {
+      writers[field.pos()] = new GenericDatumWriter<>(field.schema());
+    }
+    DatumWriter<Object> recordWriter = new GenericDatumWriter<>(generator.schema());
+    RecordBuffer record = new RecordBuffer();
+    BinaryEncoder encoder = null;
+    ByteBuffer pool = ByteBuffer.allocateDirect(1024);
+    try {
+      for (int i = 0; i < size; i++) {
+        Object generated = generator.generate();
+        record.reset();
+        encoder = EncoderFactory.get().directBinaryEncoder(record, encoder);
+        if (gapCount == 0) {
+          recordWriter.write(generated, encoder);
+        } else {
+          int gap = i * gapCount;
+          for (Schema.Field field : fields) {
+            if (mutableFields[field.pos()] != null) {
+              gaps[gap++] = record.size();
+            } else {
+              writers[field.pos()].write(((GenericRecord) generated).get(field.pos()), encoder);
+            }
+          }
+        }
+        if (keys != null) {
+          keys[i] = ((GenericRecord) generated).get(keyField.pos());
+        }
+        pool = append(pool, record.view());
+        offsets[i + 1] = pool.position();
+      }
+    } catch (IOException ioe) {
+      throw new UncheckedIOException(ioe);
+    }
+    pool.flip();
+    return pool.asReadOnlyBuffer();
+  }
+
+  private static ByteBuffer append(ByteBuffer pool, ByteBuffer record) {
+    if (pool.remaining() >= record.remaining()) {
+      return pool.put(record);
+    }
+    long needed = (long) pool.position() + record.remaining();
+    if (needed > Integer.MAX_VALUE) {
+      throw new RuntimeException(String.format(
+          "Record pool needs more than %d bytes",
+          Integer.MAX_VALUE
+      ));
+    }
+    ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * pool.capacity())));
+    pool.flip();
+    return grown.put(pool).put(record);
+  }
+
+  /**
+   * @return The number of records in the pool.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return The number of bytes the pooled records take up, excluding any mutable fields.
+   */
+  int bytes() {
+    return records.limit();
+  }
+
+  /**
+   * @param random The randomness to sample records and draw keys with.
+   * @param sample Whether to replay records in a random order, instead of cycling through them.
+   * @return A new reader, for use by one thread.
+   */
+  Reader reader(Random random, boolean sample) {
+    return new Reader(random, sample);
+  }
+
+  private enum MutableField {
+    KEY, TIMESTAMP
+  }
+
+  /**
+   * Replays the pooled records, one at a time.
+   */
+  final class Reader {
+    private final Random random;
+    private final boolean sample;
+    private final ByteBuffer view = records.duplicate();
+    private final RecordBuffer out = new RecordBuffer();
+    private final ValueGenerator keyGenerator;
+    private final DatumWriter<Object> keyWriter;
+    private BinaryEncoder encoder;
+    private int next;
+    private Object key;
+
+    private Reader(Random random, boolean sample) {
+      this.random = random;
+      this.sample = sample;
+      if (keyspace != null) {
+        this.keyGenerator = keyspace.compile(keyField.schema(), random, new HashMap<>());
+        this.keyWriter = new GenericDatumWriter<>(keyField.schema());
+      } else {
+        this.keyGenerator = null;
+        this.keyWriter = null;
+      }
+    }
+
+    /**
+     * @return The next record, binary encoded. The buffer is only valid until the next call.
+     */
+    ByteBuffer next() {
+      int index;
+      if (sample) {
+        index = random.nextInt(size);
+      } else {
+        index = next;
+        next = next + 1 == size ? 0 : next + 1;
+      }
+      int start = offsets[index];
+      int end = offsets[index + 1];
+      if (keys != null) {
+        key = keys[index];
+      }
+      if (gaps.length == 0) {
+        view.clear();
+        view.position(start).limit(end);
+        return view;
+      }
+      return splice(index, start, end);
+    }
+
+    /**
+     * @return The key of the record last returned by {@link #next()}, or null if the pool has no
+     *     key field.
+     */
+    Object key() {
+      return key;
+    }
+
+    private ByteBuffer splice(int index, int start, int end) {
+      out.reset();
+      encoder = EncoderFactory.get().directBinaryEncoder(out, encoder);
+      int gapCount = gaps.length / size;
+      int segmentStart = start;
+      int gap = index * gapCount;
+      try {
+        for (MutableField field : mutableFields) {
+          if (field == null) {
+            continue;
+          }
+          int gapAt = start + gaps[gap++];
+          view.clear();
+          view.position(segmentStart).limit(gapAt);
+          out.write(view);
+          if (field == MutableField.KEY) {
+            key = keyGenerator.generate();
+            keyWriter.write(key, encoder);
+          } else {
+            writeTimestamp();
+          }
+          segmentStart = gapAt;
+        }
+      } catch (IOException ioe) {
+        throw new UncheckedIOException(ioe);
+      }
+      view.clear();
+      view.position(segmentStart).limit(end);
+      out.write(view);
+      return out.view();
+    }
+
+    private void writeTimestamp() throws IOException {
+      if (timestampBranch >= 0) {
+        encoder.writeIndex(timestampBranch);
+      }
+      long now = LogicalTypeGenerators.now(timestampSchema);
+      if (timestampSchema.getType() == Schema.Type.INT) {
+        encoder.writeInt((int) now);
+      } else {
+        encoder.writeLong(now);
+      }
+    }
+  }
+}
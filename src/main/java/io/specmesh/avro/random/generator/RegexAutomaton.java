@@ -0,0 +1,298 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.RegExp;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression compiled into flat transition tables for generating matching strings of a
+ * bounded length. The tables also record, for every state, which numbers of further characters
+ * can still end in a match, so a random walk only ever takes transitions that can finish within
+ * the length bounds and never has to backtrack.
+ */
+final class RegexAutomaton {
+  /** Returned by {@link #next(Random, int, int)} when the walk should end. */
+  static final long STOP = -1;
+
+  private static final int STOP_ODDS = 3;
+  private static final Pattern QUOTED = Pattern.compile("\\\\Q(.*?)\\\\E");
+  private static final Pattern QUOTABLE = Pattern.compile("[.^$*+?(){|\\[\\\\@]");
+  private static final String[][] CHARACTER_CLASSES = {
+      {"\\d", "[0-9]"},
+      {"\\D", "[^0-9]"},
+      {"\\s", "[ \t\n\f\r]"},
+      {"\\S", "[^ \t\n\f\r]"},
+      {"\\w", "[a-zA-Z_0-9]"},
+      {"\\W", "[^a-zA-Z_0-9]"}
+  };
+
+  private final int minLength;
+  private final int maxLength;
+  private final boolean[] accept;
+  private final int[] firstTransition;
+  private final char[] low;
+  private final int[] width;
+  private final int[] dest;
+  private final int window;
+  private final int[][] reachable;
+  private final boolean ascii;
+
+  /**
+   * @param regex The regular expression, in the syntax used by the dk.brics automaton library with
+   *              the {@code \d}, {@code \s}, {@code \w} (and negated) classes and {@code \Q...\E}
+   *              quoting on top.
+   * @param minLength The minimum length of a generated string.
+   * @param maxLength The maximum length of a generated string, inclusive.
+   * @return The compiled regular expression.
+   */
+  static RegexAutomaton compile(String regex, int minLength, int maxLength) {
+    Automaton automaton = new RegExp(normalize(regex)).toAutomaton();
+    RegexAutomaton compiled = new RegexAutomaton(automaton, minLength, maxLength);
+    if (!compiled.canFinish(0, 0)) {
+      throw new RuntimeException(String.format(
+          "regex %s cannot match a string with a length from %d to %d",
+          regex,
+          minLength,
+          maxLength
+      ));
+    }
+    return compiled;
+  }
+
+  private RegexAutomaton(Automaton automaton, int minLength, int maxLength) {
+    this.minLength = minLength;
+    this.maxLength = maxLength;
+
+    // Number the states breadth first from the initial state, so that the tables, and therefore
+    // the strings generated for a given seed, do not depend on hash ordering
+    List<State> states = new ArrayList<>();
+    Map<State, Integer> numbers = new HashMap<>();
+    Deque<State> pending = new ArrayDeque<>();
+    numbers.put(automaton.getInitialState(), 0);
+    pending.add(automaton.getInitialState());
+    List<Transition> transitions = new ArrayList<>();
+    List<Integer> offsets = new ArrayList<>();
+    while (!pending.isEmpty()) {
+      State state = pending.poll();
+      states.add(state);
+      offsets.add(transitions.size());
+      for (Transition transition : state.getSortedTransitions(false)) {
+        transitions.add(transition);
+        if (!numbers.containsKey(transition.getDest())) {
+          numbers.put(transition.getDest(), numbers.size());
+          pending.add(transition.getDest());
+        }
+      }
+    }
+    offsets.add(transitions.size());
+
+    int stateCount = states.size();
+    this.accept = new boolean[stateCount];
+    this.firstTransition = new int[stateCount + 1];
+    for (int i = 0; i < stateCount; i++) {
+      accept[i] = states.get(i).isAccept();
+      firstTransition[i] = offsets.get(i);
+    }
+    firstTransition[stateCount] = offsets.get(stateCount);
+
+    this.low = new char[transitions.size()];
+    this.width = new int[transitions.size()];
+    this.dest = new int[transitions.size()];
+    boolean allAscii = true;
+    for (int t = 0; t < transitions.size(); t++) {
+      Transition transition = transitions.get(t);
+      low[t] = transition.getMin();
+      width[t] = transition.getMax() - transition.getMin() + 1;
+      dest[t] = numbers.get(transition.getDest());
+      allAscii &= transition.getMax() < 0x80;
+    }
+    this.ascii = allAscii;
+
+    // Any match longer than minLength + stateCount - 1 repeats a state, so it can be shortened to
+    // one no shorter than minLength; the tables therefore never need to look further ahead
+    this.window = stateCount;
+    this.reachable = reachabilityCounts(minLength + stateCount);
+  }
+
+  /**
+   * @param lengths The number of lengths to tabulate.
+   * @return For each state, the number of lengths up to and including each index from which the
+   *     state can reach an accepting state in exactly that many characters.
+   */
+  private int[][] reachabilityCounts(int lengths) {
+    int stateCount = accept.length;
+    boolean[] current = accept.clone();
+    int[][] counts = new int[stateCount][lengths];
+    for (int k = 0; k < lengths; k++) {
+      for (int s = 0; s < stateCount; s++) {
+        counts[s][k] = (k == 0 ? 0 : counts[s][k - 1]) + (current[s] ? 1 : 0);
+      }
+      boolean[] previous = current;
+      current = new boolean[stateCount];
+      for (int s = 0; s < stateCount; s++) {
+        for (int t = firstTransition[s]; t < firstTransition[s + 1]; t++) {
+          if (previous[dest[t]]) {
+            current[s] = true;
+            break;
+          }
+        }
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * @return {@code true} if every character the regular expression can produce is ASCII.
+   */
+  boolean isAscii() {
+    return ascii;
+  }
+
+  /**
+   * Recognises regular expressions that are a fixed sequence of ASCII character classes, such as
+   * {@code [A-Z]{2}[0-9]{6}} or {@code User_[a-f0-9]{32}}, which can be generated without walking
+   * the automaton.
+   * @return The characters allowed at each position of every match, or {@code null} if matches can
+   *     differ in length or contain non-ASCII characters.
+   */
+  byte[][] asciiCharacterClasses() {
+    if (!ascii) {
+      return null;
+    }
+    List<byte[]> classes = new ArrayList<>();
+    boolean[] visited = new boolean[accept.length];
+    int state = start();
+    while (!accept[state]) {
+      visited[state] = true;
+      int from = firstTransition[state];
+      int to = firstTransition[state + 1];
+      if (from == to) {
+        return null;
+      }
+      int next = dest[from];
+      int size = 0;
+      for (int t = from; t < to; t++) {
+        if (dest[t] != next) {
+          return null;
+        }
+        size += width[t];
+      }
+      if (visited[next]) {
+        return null;
+      }
+      byte[] characters = new byte[size];
+      int i = 0;
+      for (int t = from; t < to; t++) {
+        for (int c = 0; c < width[t]; c++) {
+          characters[i++] = (byte) (low[t] + c);
+        }
+      }
+      classes.add(characters);
+      state = next;
+    }
+    if (firstTransition[state] != firstTransition[state + 1]) {
+      return null;
+    }
+    return classes.toArray(new byte[0][]);
+  }
+
+  /**
+   * @return The state a walk starts in.
+   */
+  int start() {
+    return 0;
+  }
+
+  /**
+   * Takes one step of a random walk.
+   * @param random The source of randomness.
+   * @param state The current state.
+   * @param length The number of characters generated so far.
+   * @return {@link #STOP} if the walk should end here, or otherwise the next character in the
+   *     upper 32 bits and the state it leads to in the lower 32 bits.
+   */
+  long next(Random random, int state, int length) {
+    int from = firstTransition[state];
+    int to = firstTransition[state + 1];
+    int total = 0;
+    for (int t = from; t < to; t++) {
+      if (canFinish(dest[t], length + 1)) {
+        total += width[t];
+      }
+    }
+    if (total == 0
+        || (accept[state] && length >= minLength && random.nextInt(STOP_ODDS) == 0)) {
+      return STOP;
+    }
+    int pick = random.nextInt(total);
+    for (int t = from; t < to; t++) {
+      if (canFinish(dest[t], length + 1)) {
+        if (pick < width[t]) {
+          return ((long) (low[t] + pick) << Integer.SIZE) | dest[t];
+        }
+        pick -= width[t];
+      }
+    }
+    throw new IllegalStateException("Unreachable");
+  }
+
+  /**
+   * @return {@code true} if a walk in {@code state} after {@code length} characters can still end
+   *     in a match within the length bounds.
+   */
+  private boolean canFinish(int state, int length) {
+    if (length > maxLength) {
+      return false;
+    }
+    int fewest = Math.max(0, minLength - length);
+    int most = (int) Math.min((long) maxLength - length, (long) fewest + window - 1);
+    int[] counts = reachable[state];
+    return counts[most] - (fewest == 0 ? 0 : counts[fewest - 1]) > 0;
+  }
+
+  /**
+   * Rewrites the shorthand character classes and quoting that the automaton library does not
+   * understand, in the same way that Generex does.
+   */
+  private static String normalize(String regex) {
+    StringBuilder builder = new StringBuilder(regex);
+    Matcher quoted = QUOTED.matcher(builder);
+    while (quoted.find()) {
+      String escaped = QUOTABLE.matcher(quoted.group(1)).replaceAll("\\\\$0");
+      builder.replace(quoted.start(), quoted.end(), escaped);
+      quoted.reset(builder);
+    }
+    String normalized = builder.toString();
+    for (String[] characterClass : CHARACTER_CLASSES) {
+      normalized = normalized.replace(characterClass[0], characterClass[1]);
+    }
+    return normalized;
+  }
+}
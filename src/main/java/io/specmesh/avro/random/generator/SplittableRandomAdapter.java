@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Exposes a {@link SplittableRandom} as a {@link Random}, so that it can be used anywhere the
+ * generator accepts one. {@link SplittableRandom} keeps no atomic state, so an instance must not be
+ * shared between threads; use {@link #split()} to hand each thread its own independent stream.
+ */
+public final class SplittableRandomAdapter extends Random {
+
+  private static final long serialVersionUID = 1L;
+
+  private SplittableRandom source;
+
+  public SplittableRandomAdapter(long seed) {
+    super(seed);
+  }
+
+  private SplittableRandomAdapter(SplittableRandom source) {
+    super(0L);
+    this.source = source;
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    source = new SplittableRandom(seed);
+  }
+
+  /**
+   * @return A new generator whose values are statistically independent of this one's.
+   * @see SplittableRandom#split()
+   */
+  public SplittableRandomAdapter split() {
+    return new SplittableRandomAdapter(source.split());
+  }
+
+  @Override
+  protected int next(int bits) {
+    return source.nextInt() >>> (Integer.SIZE - bits);
+  }
+
+  @Override
+  public int nextInt() {
+    return source.nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return source.nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return source.nextLong();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return source.nextBoolean();
+  }
+
+  @Override
+  public float nextFloat() {
+    return (source.nextInt() >>> 8) * 0x1.0p-24f;
+  }
+
+  @Override
+  public double nextDouble() {
+    return source.nextDouble();
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.io.BinaryEncoder;
+
+import java.io.IOException;
+
+/**
+ * A single node of a compiled generator plan. Each node is built once per schema by
+ * {@link Generator}, with all of its {@value Generator#ARG_PROPERTIES_PROP} already parsed and
+ * validated, so producing a value involves no further property lookups.
+ */
+interface ValueGenerator {
+
+  /**
+   * @return A newly generated value, of the Java class documented on {@link Generator#generate()}.
+   */
+  Object generate();
+
+  /**
+   * Generates a value and writes it straight to {@code encoder}, without building the Java object
+   * that {@link #generate()} would return. Randomness is consumed exactly as {@link #generate()}
+   * consumes it, so both produce the same data for the same seed.
+   * @param encoder The encoder to write the value to.
+   * @throws IOException if the encoder fails to write.
+   */
+  void write(BinaryEncoder encoder) throws IOException;
+}
@@ -0,0 +1,961 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import org.apache.avro.Schema;
+
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The {@link ValueGenerator} implementations that {@link Generator} compiles schemas into. Each
+ * holds its configuration as primitives or pre-built objects, so all validation has already
+ * happened by the time one is constructed.
+ */
+final class ValueGenerators {
+
+  private ValueGenerators() {
+  }
+
+  static final ValueGenerator NULL = new ValueGenerator() {
+    @Override
+    public Object generate() {
+      return null;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeNull();
+    }
+  };
+
+  /**
+   * Fills the first {@code length} bytes of {@code bytes} exactly as {@link Random#nextBytes(byte[])}
+   * fills an array of that length, so a scratch buffer can stand in for a freshly allocated one.
+   */
+  static void nextBytes(Random random, byte[] bytes, int length) {
+    int i = 0;
+    while (i < length) {
+      int rnd = random.nextInt();
+      for (int n = Math.min(length - i, Integer.BYTES); n > 0; n--) {
+        bytes[i++] = (byte) rnd;
+        rnd >>= Byte.SIZE;
+      }
+    }
+  }
+
+  static byte[] ensureCapacity(byte[] buffer, int capacity) {
+    return buffer.length >= capacity ? buffer : new byte[Math.max(capacity, buffer.length * 2)];
+  }
+
+  /**
+   * Picks the index of an option, uniformly unless the options are weighted or distributed.
+   * @param distribution The distribution of the options, or {@code null} to pick uniformly.
+   */
+  static int pickOption(Random random, int size, Distribution distribution) {
+    return distribution == null ? random.nextInt(size) : (int) distribution.sample(random);
+  }
+
+  /**
+   * Picks from a fixed set of options, uniformly, by weight or by distribution. Each option is encoded once, on first
+   * write, so that writing one is a single copy of its bytes.
+   */
+  static final class OptionGenerator implements ValueGenerator {
+    private final Random random;
+    private final Schema schema;
+    private final Object[] options;
+    private final Distribution distribution;
+    private byte[][] encodedOptions;
+
+    OptionGenerator(Random random, Schema schema, List<Object> options, Distribution distribution) {
+      this.random = random;
+      this.schema = schema;
+      this.options = options.toArray();
+      this.distribution = distribution;
+    }
+
+    private static byte[][] encodeAll(Schema schema, Object[] options) {
+      DatumWriter<Object> writer = new GenericDatumWriter<>(schema);
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      BinaryEncoder encoder = null;
+      byte[][] encoded = new byte[options.length][];
+      try {
+        for (int i = 0; i < options.length; i++) {
+          buffer.reset();
+          encoder = EncoderFactory.get().directBinaryEncoder(buffer, encoder);
+          writer.write(options[i], encoder);
+          encoded[i] = buffer.toByteArray();
+        }
+      } catch (IOException ioe) {
+        throw new UncheckedIOException(ioe);
+      }
+      return encoded;
+    }
+
+    @Override
+    public Object generate() {
+      return options[pickOption(random, options.length, distribution)];
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      if (encodedOptions == null) {
+        encodedOptions = encodeAll(schema, options);
+      }
+      byte[] option = encodedOptions[pickOption(random, encodedOptions.length, distribution)];
+      encoder.writeFixed(option, 0, option.length);
+    }
+  }
+
+  /**
+   * Picks from an {@link OptionPool}, uniformly, by weight or by distribution, writing the picked option straight
+   * from the pool.
+   */
+  static final class PooledOptionGenerator implements ValueGenerator {
+    private final Random random;
+    private final OptionPool options;
+    private final int size;
+    private final Distribution distribution;
+
+    PooledOptionGenerator(Random random, OptionPool options, Distribution distribution) {
+      this.random = random;
+      this.options = options;
+      this.size = options.size();
+      this.distribution = distribution;
+    }
+
+    @Override
+    public Object generate() {
+      return options.get(pickOption(random, size, distribution));
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      options.write(pickOption(random, size, distribution), encoder);
+    }
+  }
+
+  /**
+   * Picks from a memory-mapped options file, uniformly, by weight or by distribution. Picked options are decoded for
+   * {@link #generate()}, but written as they are encoded in the file.
+   */
+  static final class MappedOptionGenerator implements ValueGenerator {
+    private final Random random;
+    private final MappedOptions.Reader reader;
+    private final int size;
+    private final Distribution distribution;
+
+    MappedOptionGenerator(Random random, MappedOptions.Reader reader, int size, Distribution distribution) {
+      this.random = random;
+      this.reader = reader;
+      this.size = size;
+      this.distribution = distribution;
+    }
+
+    @Override
+    public Object generate() {
+      return reader.read(pickOption(random, size, distribution));
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      reader.write(pickOption(random, size, distribution), encoder);
+    }
+  }
+
+  static final class IterationGenerator implements ValueGenerator {
+    private final Iterator<Object> iterator;
+    private final Schema.Type type;
+
+    IterationGenerator(Iterator<Object> iterator, Schema.Type type) {
+      this.iterator = iterator;
+      this.type = type;
+    }
+
+    @Override
+    public Object generate() {
+      return iterator.next();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      Object value = iterator.next();
+      switch (type) {
+        case BOOLEAN:
+          encoder.writeBoolean((Boolean) value);
+          break;
+        case INT:
+          encoder.writeInt((Integer) value);
+          break;
+        case LONG:
+          encoder.writeLong((Long) value);
+          break;
+        case FLOAT:
+          encoder.writeFloat((Float) value);
+          break;
+        case DOUBLE:
+          encoder.writeDouble((Double) value);
+          break;
+        default:
+          throw new IllegalStateException("Unexpected iteration type: " + type);
+      }
+    }
+  }
+
+  static final class ArrayGenerator implements ValueGenerator {
+    private final Random random;
+    private final Generator.LengthBounds lengthBounds;
+    private final ValueGenerator elements;
+
+    ArrayGenerator(Random random, Generator.LengthBounds lengthBounds, ValueGenerator elements) {
+      this.random = random;
+      this.lengthBounds = lengthBounds;
+      this.elements = elements;
+    }
+
+    @Override
+    public Object generate() {
+      int length = lengthBounds.random(random);
+      Collection<Object> result = new ArrayList<>(length);
+      for (int i = 0; i < length; i++) {
+        result.add(elements.generate());
+      }
+      return result;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      int length = lengthBounds.random(random);
+      encoder.writeArrayStart();
+      encoder.setItemCount(length);
+      for (int i = 0; i < length; i++) {
+        encoder.startItem();
+        elements.write(encoder);
+      }
+      encoder.writeArrayEnd();
+    }
+  }
+
+  static final class BooleanGenerator implements ValueGenerator {
+    private final Random random;
+
+    BooleanGenerator(Random random) {
+      this.random = random;
+    }
+
+    @Override
+    public Object generate() {
+      return random.nextBoolean();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeBoolean(random.nextBoolean());
+    }
+  }
+
+  static final class BooleanOddsGenerator implements ValueGenerator {
+    private final Random random;
+    private final double odds;
+
+    BooleanOddsGenerator(Random random, double odds) {
+      this.random = random;
+      this.odds = odds;
+    }
+
+    @Override
+    public Object generate() {
+      return random.nextDouble() < odds;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeBoolean(random.nextDouble() < odds);
+    }
+  }
+
+  static final class BytesGenerator implements ValueGenerator {
+    private final Random random;
+    private final Generator.LengthBounds lengthBounds;
+    private byte[] scratch = new byte[0];
+
+    BytesGenerator(Random random, Generator.LengthBounds lengthBounds) {
+      this.random = random;
+      this.lengthBounds = lengthBounds;
+    }
+
+    @Override
+    public Object generate() {
+      byte[] bytes = new byte[lengthBounds.random(random)];
+      random.nextBytes(bytes);
+      return ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      int length = lengthBounds.random(random);
+      scratch = ensureCapacity(scratch, length);
+      nextBytes(random, scratch, length);
+      encoder.writeBytes(scratch, 0, length);
+    }
+  }
+
+  static final class FixedGenerator implements ValueGenerator {
+    private final Random random;
+    private final Schema schema;
+    private final byte[] scratch;
+
+    FixedGenerator(Random random, Schema schema) {
+      this.random = random;
+      this.schema = schema;
+      this.scratch = new byte[schema.getFixedSize()];
+    }
+
+    @Override
+    public Object generate() {
+      byte[] bytes = new byte[scratch.length];
+      random.nextBytes(bytes);
+      return new GenericData.Fixed(schema, bytes);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      nextBytes(random, scratch, scratch.length);
+      encoder.writeFixed(scratch);
+    }
+  }
+
+  static final class DoubleGenerator implements ValueGenerator {
+    private final Random random;
+
+    DoubleGenerator(Random random) {
+      this.random = random;
+    }
+
+    @Override
+    public Object generate() {
+      return random.nextDouble();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeDouble(random.nextDouble());
+    }
+  }
+
+  static final class DoubleRangeGenerator implements ValueGenerator {
+    private final Random random;
+    private final double min;
+    private final double span;
+
+    DoubleRangeGenerator(Random random, double min, double max) {
+      this.random = random;
+      this.min = min;
+      this.span = max - min;
+    }
+
+    @Override
+    public Object generate() {
+      return min + (random.nextDouble() * span);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeDouble(min + (random.nextDouble() * span));
+    }
+  }
+
+  static final class EnumGenerator implements ValueGenerator {
+    private final Random random;
+    private final GenericData.EnumSymbol[] symbols;
+
+    EnumGenerator(Random random, Schema schema) {
+      this.random = random;
+      this.symbols = schema.getEnumSymbols().stream()
+          .map(symbol -> new GenericData.EnumSymbol(schema, symbol))
+          .toArray(GenericData.EnumSymbol[]::new);
+    }
+
+    @Override
+    public Object generate() {
+      return symbols[random.nextInt(symbols.length)];
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeEnum(random.nextInt(symbols.length));
+    }
+  }
+
+  static final class FloatGenerator implements ValueGenerator {
+    private final Random random;
+
+    FloatGenerator(Random random) {
+      this.random = random;
+    }
+
+    @Override
+    public Object generate() {
+      return random.nextFloat();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeFloat(random.nextFloat());
+    }
+  }
+
+  static final class FloatRangeGenerator implements ValueGenerator {
+    private final Random random;
+    private final float min;
+    private final float span;
+
+    FloatRangeGenerator(Random random, float min, float max) {
+      this.random = random;
+      this.min = min;
+      this.span = max - min;
+    }
+
+    @Override
+    public Object generate() {
+      return min + (random.nextFloat() * span);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeFloat(min + (random.nextFloat() * span));
+    }
+  }
+
+  static final class IntGenerator implements ValueGenerator {
+    private final Random random;
+
+    IntGenerator(Random random) {
+      this.random = random;
+    }
+
+    @Override
+    public Object generate() {
+      return random.nextInt();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeInt(random.nextInt());
+    }
+  }
+
+  static final class IntRangeGenerator implements ValueGenerator {
+    private final Random random;
+    private final int min;
+    private final long span;
+
+    IntRangeGenerator(Random random, int min, int max) {
+      this.random = random;
+      this.min = min;
+      this.span = (long) max - min;
+    }
+
+    @Override
+    public Object generate() {
+      return (int) (min + (long) (random.nextDouble() * span));
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeInt((int) (min + (long) (random.nextDouble() * span)));
+    }
+  }
+
+  static final class LongGenerator implements ValueGenerator {
+    private final Random random;
+
+    LongGenerator(Random random) {
+      this.random = random;
+    }
+
+    @Override
+    public Object generate() {
+      return random.nextLong();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeLong(random.nextLong());
+    }
+  }
+
+  static final class LongRangeGenerator implements ValueGenerator {
+    private final Random random;
+    private final long min;
+    private final long span;
+
+    LongRangeGenerator(Random random, long min, long max) {
+      this.random = random;
+      this.min = min;
+      this.span = max - min;
+    }
+
+    @Override
+    public Object generate() {
+      return min + ((long) (random.nextDouble() * span));
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeLong(min + ((long) (random.nextDouble() * span)));
+    }
+  }
+
+  /**
+   * Generates int or long values offset from a minimum by a {@link Distribution}.
+   */
+  static final class DistributionGenerator implements ValueGenerator {
+    private final Random random;
+    private final Distribution distribution;
+    private final long min;
+    private final boolean isInt;
+
+    DistributionGenerator(Random random, Distribution distribution, long min, Schema.Type type) {
+      this.random = random;
+      this.distribution = distribution;
+      this.min = min;
+      this.isInt = type == Schema.Type.INT;
+    }
+
+    @Override
+    public Object generate() {
+      long value = min + distribution.sample(random);
+      return isInt ? (Object) (int) value : (Object) value;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      long value = min + distribution.sample(random);
+      if (isInt) {
+        encoder.writeInt((int) value);
+      } else {
+        encoder.writeLong(value);
+      }
+    }
+  }
+
+  /**
+   * Generates maps. Generated keys may repeat, and only the last value for each key is kept, so
+   * {@link #write(BinaryEncoder)} builds the map first rather than streaming entries.
+   */
+  static final class MapGenerator implements ValueGenerator {
+    private final Random random;
+    private final Generator.LengthBounds lengthBounds;
+    private final ValueGenerator keys;
+    private final ValueGenerator values;
+    private final DatumWriter<Object> writer;
+
+    MapGenerator(
+        Random random,
+        Schema schema,
+        Generator.LengthBounds lengthBounds,
+        ValueGenerator keys,
+        ValueGenerator values) {
+      this.random = random;
+      this.lengthBounds = lengthBounds;
+      this.keys = keys;
+      this.values = values;
+      this.writer = new GenericDatumWriter<>(schema);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      writer.write(generate(), encoder);
+    }
+
+    @Override
+    public Object generate() {
+      Map<String, Object> result = new HashMap<>();
+      int length = lengthBounds.random(random);
+      for (int i = 0; i < length; i++) {
+        result.put((String) keys.generate(), values.generate());
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Generates records by filling a {@link GenericData.Record} positionally. Every field is always
+   * generated, so the validation, set-tracking and default handling of a
+   * {@link org.apache.avro.generic.GenericRecordBuilder} would be pure overhead. Field generators
+   * are supplied after construction so that the node can be registered before its fields are
+   * compiled, which allows recursive schemas.
+   */
+  static final class RecordGenerator implements ValueGenerator {
+    private final Schema schema;
+    private int[] positions;
+    private ValueGenerator[] fieldGenerators;
+
+    RecordGenerator(Schema schema) {
+      this.schema = schema;
+    }
+
+    void fieldGenerators(ValueGenerator[] fieldGenerators) {
+      this.positions = schema.getFields().stream().mapToInt(Schema.Field::pos).toArray();
+      this.fieldGenerators = fieldGenerators;
+    }
+
+    /**
+     * @return A copy of this node, with its own field nodes, that generates field {@code index} with
+     *     {@code fieldGenerator} instead. This node, shared by every occurrence of its schema, is
+     *     left unchanged.
+     */
+    RecordGenerator withFieldGenerator(int index, ValueGenerator fieldGenerator) {
+      RecordGenerator copy = new RecordGenerator(schema);
+      copy.fieldGenerators(fieldGenerators.clone());
+      copy.fieldGenerators[index] = fieldGenerator;
+      return copy;
+    }
+
+    @Override
+    public Object generate() {
+      GenericData.Record record = new GenericData.Record(schema);
+      for (int i = 0; i < positions.length; i++) {
+        record.put(positions[i], fieldGenerators[i].generate());
+      }
+      return record;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      for (ValueGenerator fieldGenerator : fieldGenerators) {
+        fieldGenerator.write(encoder);
+      }
+    }
+  }
+
+  /**
+   * Base for all string generators, applying any configured prefix and suffix to the generated
+   * value.
+   */
+  abstract static class AbstractStringGenerator implements ValueGenerator {
+    private final String prefix;
+    private final String suffix;
+    private final boolean affixed;
+
+    AbstractStringGenerator(String prefix, String suffix) {
+      this.prefix = prefix;
+      this.suffix = suffix;
+      this.affixed = !prefix.isEmpty() || !suffix.isEmpty();
+    }
+
+    @Override
+    public Object generate() {
+      String result = generateString();
+      return affixed ? prefix + result + suffix : result;
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      encoder.writeString((String) generate());
+    }
+
+    abstract String generateString();
+  }
+
+  /**
+   * Generates random ASCII strings, optionally restricted to printable characters. Each call to the
+   * {@link Random} yields several characters: nine 7-bit ASCII characters, or four printable ones
+   * scaled from 16 bits each. The whole value, affixes included, is assembled in a reusable
+   * buffer, which is either written out directly or copied once into a string; when the affixes
+   * are ASCII too, that copy is the JDK's Latin-1 fast path with no decoding.
+   */
+  static final class StringGenerator implements ValueGenerator {
+    private static final int ASCII_BITS = 7;
+    private static final int ASCII_PER_LONG = Long.SIZE / ASCII_BITS;
+    private static final int PRINTABLE_BITS = 16;
+    private static final int PRINTABLE_PER_LONG = Long.SIZE / PRINTABLE_BITS;
+    private static final int FIRST_PRINTABLE = ' ';
+    private static final int PRINTABLE_COUNT = '~' - ' ' + 1;
+
+    private final Random random;
+    private final Generator.LengthBounds lengthBounds;
+    private final boolean printable;
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final Charset charset;
+    private byte[] scratch = new byte[0];
+
+    StringGenerator(
+        Random random,
+        Generator.LengthBounds lengthBounds,
+        boolean printable,
+        String prefix,
+        String suffix) {
+      this.random = random;
+      this.lengthBounds = lengthBounds;
+      this.printable = printable;
+      this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+      this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+      this.charset = this.prefix.length == prefix.length() && this.suffix.length == suffix.length()
+          ? StandardCharsets.ISO_8859_1
+          : StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public Object generate() {
+      int total = fill();
+      return new String(scratch, 0, total, charset);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      // Strings are encoded exactly as bytes are, so the UTF-8 form can be written as it is
+      int total = fill();
+      encoder.writeBytes(scratch, 0, total);
+    }
+
+    /**
+     * Assembles the UTF-8 form of a new value, affixes included, at the start of the scratch buffer.
+     * @return The length of the value in bytes.
+     */
+    private int fill() {
+      int length = lengthBounds.random(random);
+      int total = prefix.length + length + suffix.length;
+      scratch = ensureCapacity(scratch, total);
+      System.arraycopy(prefix, 0, scratch, 0, prefix.length);
+      fillCharacters(prefix.length, prefix.length + length);
+      System.arraycopy(suffix, 0, scratch, prefix.length + length, suffix.length);
+      return total;
+    }
+
+    private void fillCharacters(int from, int to) {
+      byte[] bytes = scratch;
+      int i = from;
+      if (printable) {
+        while (i < to) {
+          long bits = random.nextLong();
+          for (int n = Math.min(to - i, PRINTABLE_PER_LONG); n > 0; n--) {
+            bytes[i++] = (byte) (FIRST_PRINTABLE + (((bits & 0xFFFF) * PRINTABLE_COUNT) >>> PRINTABLE_BITS));
+            bits >>>= PRINTABLE_BITS;
+          }
+        }
+      } else {
+        while (i < to) {
+          long bits = random.nextLong();
+          for (int n = Math.min(to - i, ASCII_PER_LONG); n > 0; n--) {
+            bytes[i++] = (byte) (bits & 0x7F);
+            bits >>>= ASCII_BITS;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Generates strings for regular expressions that are a fixed sequence of ASCII character classes,
+   * picking each character by index into its class. Each call to the {@link Random} yields several
+   * characters: classes whose size is a power of two take exactly as many bits as they need, while
+   * others are scaled from 16 bits, and single characters take none at all.
+   */
+  static final class CharacterClassGenerator implements ValueGenerator {
+    private static final int SCALED_BITS = 16;
+
+    private final Random random;
+    private final byte[][] classes;
+    private final int[] bits;
+    private final byte[] scratch;
+    private final int prefixLength;
+    private final Charset charset;
+
+    CharacterClassGenerator(Random random, byte[][] classes, String prefix, String suffix) {
+      this.random = random;
+      this.classes = classes;
+      this.bits = new int[classes.length];
+      for (int i = 0; i < classes.length; i++) {
+        int size = classes[i].length;
+        bits[i] = Integer.bitCount(size) == 1 ? Integer.numberOfTrailingZeros(size) : SCALED_BITS;
+      }
+      byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+      byte[] suffixBytes = suffix.getBytes(StandardCharsets.UTF_8);
+      this.prefixLength = prefixBytes.length;
+      this.scratch = new byte[prefixBytes.length + classes.length + suffixBytes.length];
+      System.arraycopy(prefixBytes, 0, scratch, 0, prefixBytes.length);
+      System.arraycopy(suffixBytes, 0, scratch, prefixLength + classes.length, suffixBytes.length);
+      this.charset = prefixBytes.length == prefix.length() && suffixBytes.length == suffix.length()
+          ? StandardCharsets.ISO_8859_1
+          : StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public Object generate() {
+      fill();
+      return new String(scratch, charset);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      fill();
+      encoder.writeBytes(scratch, 0, scratch.length);
+    }
+
+    /**
+     * Fills the characters between the prefix and suffix, which stay in place in the scratch buffer.
+     */
+    private void fill() {
+      long draw = 0;
+      int available = 0;
+      for (int i = 0; i < classes.length; i++) {
+        byte[] characters = classes[i];
+        int needed = bits[i];
+        if (available < needed) {
+          draw = random.nextLong();
+          available = Long.SIZE;
+        }
+        int index = needed == SCALED_BITS
+            ? (int) (((draw & 0xFFFF) * characters.length) >>> SCALED_BITS)
+            : (int) (draw & (characters.length - 1));
+        scratch[prefixLength + i] = characters[index];
+        draw >>>= needed;
+        available -= needed;
+      }
+    }
+  }
+
+  /**
+   * Generates strings matching a {@link RegexAutomaton} by walking it straight into a reusable
+   * character buffer that already holds the prefix. When the whole value is ASCII it is written
+   * out as bytes without building a string.
+   */
+  static final class RegexStringGenerator implements ValueGenerator {
+    private final Random random;
+    private final RegexAutomaton automaton;
+    private final int prefixLength;
+    private final char[] suffix;
+    private final boolean ascii;
+    private char[] scratch;
+    private byte[] bytes = new byte[0];
+
+    RegexStringGenerator(Random random, RegexAutomaton automaton, String prefix, String suffix) {
+      this.random = random;
+      this.automaton = automaton;
+      this.prefixLength = prefix.length();
+      this.suffix = suffix.toCharArray();
+      this.ascii = automaton.isAscii() && isAscii(prefix) && isAscii(suffix);
+      this.scratch = Arrays.copyOf(prefix.toCharArray(), Math.max(16, prefix.length() * 2));
+    }
+
+    @Override
+    public Object generate() {
+      int total = fill();
+      return new String(scratch, 0, total);
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      int total = fill();
+      if (!ascii) {
+        encoder.writeString(new String(scratch, 0, total));
+        return;
+      }
+      bytes = ensureCapacity(bytes, total);
+      for (int i = 0; i < total; i++) {
+        bytes[i] = (byte) scratch[i];
+      }
+      encoder.writeBytes(bytes, 0, total);
+    }
+
+    /**
+     * Walks the automaton into the scratch buffer, after the prefix, and appends the suffix.
+     * @return The length of the value in characters.
+     */
+    private int fill() {
+      int position = prefixLength;
+      int state = automaton.start();
+      for (long step = automaton.next(random, state, 0);
+           step != RegexAutomaton.STOP;
+           step = automaton.next(random, state, position - prefixLength)) {
+        if (position == scratch.length) {
+          scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        scratch[position++] = (char) (step >>> Integer.SIZE);
+        state = (int) step;
+      }
+      int total = position + suffix.length;
+      if (total > scratch.length) {
+        scratch = Arrays.copyOf(scratch, total * 2);
+      }
+      System.arraycopy(suffix, 0, scratch, position, suffix.length);
+      return total;
+    }
+
+    private static boolean isAscii(String value) {
+      return value.chars().allMatch(c -> c < 0x80);
+    }
+  }
+
+  static final class StringIterationGenerator extends AbstractStringGenerator {
+    private final Iterator<Object> iterator;
+
+    StringIterationGenerator(Iterator<Object> iterator, String prefix, String suffix) {
+      super(prefix, suffix);
+      this.iterator = iterator;
+    }
+
+    @Override
+    String generateString() {
+      return iterator.next().toString();
+    }
+  }
+
+  static final class UnionGenerator implements ValueGenerator {
+    private final Random random;
+    private final ValueGenerator[] branches;
+
+    UnionGenerator(Random random, ValueGenerator[] branches) {
+      this.random = random;
+      this.branches = branches;
+    }
+
+    @Override
+    public Object generate() {
+      return branches[random.nextInt(branches.length)].generate();
+    }
+
+    @Override
+    public void write(BinaryEncoder encoder) throws IOException {
+      int branch = random.nextInt(branches.length);
+      encoder.writeIndex(branch);
+      branches[branch].write(encoder);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.avro.random.generator;
+
+import java.util.Random;
+
+/**
+ * A xoroshiro128++ generator (Blackman and Vigna), exposed as a {@link Random} so that it can be
+ * used anywhere the generator accepts one. It keeps 128 bits of plain state, so unlike
+ * {@link Random} it pays no atomic update per call; as a consequence an instance must not be
+ * shared between threads. Use {@link #jump()} to derive independent, non-overlapping streams.
+ */
+public final class Xoroshiro128PlusPlus extends Random {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final long[] JUMP = {0x2bd7a6a6e99c2ddcL, 0x0992ccaf6a6fca05L};
+
+  private long s0;
+  private long s1;
+
+  public Xoroshiro128PlusPlus(long seed) {
+    super(seed);
+  }
+
+  Xoroshiro128PlusPlus(long s0, long s1) {
+    super(0L);
+    this.s0 = s0;
+    this.s1 = s1;
+  }
+
+  /**
+   * Expands {@code seed} into the full generator state with SplitMix64, as recommended by the
+   * algorithm's authors.
+   */
+  @Override
+  public void setSeed(long seed) {
+    long z = seed;
+    z += 0x9e3779b97f4a7c15L;
+    s0 = mix64(z);
+    z += 0x9e3779b97f4a7c15L;
+    s1 = mix64(z);
+  }
+
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns a generator that continues from this one's current state, and advances this one by
+   * 2<sup>64</sup> steps. Calling this repeatedly yields streams that never overlap in practice.
+   * @return A generator positioned where this one was before the jump.
+   */
+  public Xoroshiro128PlusPlus jump() {
+    Xoroshiro128PlusPlus result = new Xoroshiro128PlusPlus(s0, s1);
+    long t0 = 0;
+    long t1 = 0;
+    for (long jump : JUMP) {
+      for (int b = 0; b < Long.SIZE; b++) {
+        if ((jump & (1L << b)) != 0) {
+          t0 ^= s0;
+          t1 ^= s1;
+        }
+        nextLong();
+      }
+    }
+    s0 = t0;
+    s1 = t1;
+    return result;
+  }
+
+  @Override
+  public long nextLong() {
+    long result = Long.rotateLeft(s0 + s1, 17) + s0;
+    long t = s1 ^ s0;
+    s0 = Long.rotateLeft(s0, 49) ^ t ^ (t << 21);
+    s1 = Long.rotateLeft(t, 28);
+    return result;
+  }
+
+  @Override
+  protected int next(int bits) {
+    return (int) (nextLong() >>> (Long.SIZE - bits));
+  }
+
+  @Override
+  public int nextInt() {
+    return (int) (nextLong() >>> Integer.SIZE);
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  @Override
+  public float nextFloat() {
+    return (nextLong() >>> 40) * 0x1.0p-24f;
+  }
+
+  @Override
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+}
@@ -18,10 +18,18 @@ package io.specmesh.avro.random.generator;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 
 public class APITest {
@@ -43,6 +51,151 @@ public class APITest {
         assertThat(counter.get(), is(count1));
     }
 
+    @Test
+    public void shouldRepeatKeysFromTheKeyspace() {
+        final var keys = new HashSet<Object>();
+
+        new API(2_000, "key", schema).keyCardinality(20).run((key, genericRecord) -> {
+            assertThat(genericRecord.get("key"), is(key));
+            keys.add(key.toString());
+        });
+
+        assertThat(keys.size(), is(20));
+    }
+
+    @Test
+    public void shouldReplayEncodedRecordsWithFreshKeys() {
+        final var keys = new HashSet<Object>();
+        final var encodings = new AtomicInteger();
+
+        new API(2_000, "key", schema).keyCardinality(20).replay(5, true, null).runEncoded((key, encoded) -> {
+            assertThat(encoded.hasRemaining(), is(true));
+            keys.add(key.toString());
+            encodings.incrementAndGet();
+        });
+
+        assertThat(encodings.get(), is(2_000));
+        assertThat(keys.size(), is(20));
+    }
+
+    @Test
+    public void shouldRunInBatches() {
+        final List<Integer> batchSizes = new ArrayList<>();
+
+        new API(25, "key", schema).runBatched(10, batch -> batchSizes.add(batch.size()));
+
+        assertThat(batchSizes, is(List.of(10, 10, 5)));
+    }
+
+    @Test
+    public void shouldIterateOverCountRecords() {
+        final Iterator<API.KeyValue> iterator = new API(5, "key", schema).iterator();
+
+        int seen = 0;
+        while (iterator.hasNext()) {
+            final API.KeyValue keyValue = iterator.next();
+            assertThat(keyValue.key(), is(keyValue.value().get("key")));
+            seen++;
+        }
+
+        assertThat(seen, is(5));
+    }
+
+    @Test
+    public void shouldStreamLazily() {
+        final List<API.KeyValue> records = new API(1_000_000, "key", schema).stream()
+                .limit(3)
+                .collect(Collectors.toList());
+
+        assertThat(records.size(), is(3));
+    }
+
+    @Test
+    public void shouldOnlyPublishRequestedRecords() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new API(10, "key", schema).publisher().subscribe(subscriber);
+
+        assertThat(subscriber.received.size(), is(0));
+
+        subscriber.subscription.request(3);
+        assertThat(subscriber.received.size(), is(3));
+
+        subscriber.subscription.request(4);
+        assertThat(subscriber.received.size(), is(7));
+        assertThat(subscriber.completed, is(false));
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.received.size(), is(10));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    public void shouldStopPublishingWhenCancelled() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(final API.KeyValue item) {
+                super.onNext(item);
+                if (received.size() == 2) {
+                    subscription.cancel();
+                } else {
+                    subscription.request(1);
+                }
+            }
+        };
+        new API(10, "key", schema).publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.received.size(), is(2));
+        assertThat(subscriber.completed, is(false));
+    }
+
+    @Test
+    public void shouldSignalErrorOnNonPositiveRequest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new API(10, "key", schema).publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertThat(subscriber.error, instanceOf(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void shouldCompleteEmptyPublisherWithoutRequest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new API(0, "key", schema).publisher().subscribe(subscriber);
+
+        assertThat(subscriber.completed, is(true));
+        assertThat(subscriber.error, is(nullValue()));
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<API.KeyValue> {
+        final List<API.KeyValue> received = new ArrayList<>();
+        Flow.Subscription subscription;
+        boolean completed;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final API.KeyValue item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
     private static final String schema = "{\n" +
             "  \"type\": \"record\",\n" +
             "  \"name\": \"simple_schema\",\n" +
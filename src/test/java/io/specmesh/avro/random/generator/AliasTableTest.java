@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class AliasTableTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void shouldSampleInProportionToWeights() {
+        final double[] weights = {50, 25, 12.5, 12.5, 0};
+        final AliasTable table = new AliasTable(weights);
+        final Random random = new Random(0);
+
+        final int[] counts = new int[weights.length];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) table.sample(random)]++;
+        }
+
+        assertThat((double) counts[0] / SAMPLES, is(closeTo(0.5, 0.01)));
+        assertThat((double) counts[1] / SAMPLES, is(closeTo(0.25, 0.01)));
+        assertThat((double) counts[2] / SAMPLES, is(closeTo(0.125, 0.01)));
+        assertThat((double) counts[3] / SAMPLES, is(closeTo(0.125, 0.01)));
+        assertThat(counts[4], is(0));
+    }
+
+    @Test
+    public void shouldSampleManySkewedOptions() {
+        final double[] weights = new double[10_000];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1.0 / (i + 1);
+        }
+        weights[0] = 0;
+        final AliasTable table = new AliasTable(weights);
+        final Random random = new Random(1);
+
+        int second = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            final long index = table.sample(random);
+            assertThat(index == 0, is(false));
+            if (index == 1) {
+                second++;
+            }
+        }
+
+        double total = 0;
+        for (final double weight : weights) {
+            total += weight;
+        }
+        assertThat((double) second / SAMPLES, is(closeTo(weights[1] / total, 0.01)));
+    }
+
+    @Test
+    public void shouldGenerateWeightedOptions() {
+        final Generator generator = new Generator.Builder().schemaString(
+                "{\"type\": \"string\", \"arg.properties\": "
+                        + "{\"options\": [\"OK\", \"NOT_FOUND\", \"ERROR\"], \"weights\": [90, 9, 1]}}"
+        ).random(new Random(2)).build();
+
+        final Map<Object, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            counts.merge(generator.generate(), 1, Integer::sum);
+        }
+
+        assertThat((double) counts.get("OK") / SAMPLES, is(closeTo(0.9, 0.01)));
+        assertThat((double) counts.get("ERROR") / SAMPLES, is(closeTo(0.01, 0.005)));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectWeightsThatDoNotMatchOptions() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"int\", \"arg.properties\": {\"options\": [1, 2, 3], \"weights\": [1, 2]}}"
+        ).build();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectNegativeWeights() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"int\", \"arg.properties\": {\"options\": [1, 2], \"weights\": [1, -2]}}"
+        ).build();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectWeightsWithoutOptions() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"int\", \"arg.properties\": {\"weights\": [1, 2]}}"
+        ).build();
+    }
+}
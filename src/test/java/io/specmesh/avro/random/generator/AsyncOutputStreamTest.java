@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncOutputStreamTest {
+
+    @Test
+    public void shouldWriteEverythingInOrder() throws IOException {
+        final byte[] data = new byte[10_000];
+        new Random(1L).nextBytes(data);
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        try (AsyncOutputStream output = new AsyncOutputStream(written, 3, 7)) {
+            int offset = 0;
+            for (int chunk = 0; offset < data.length; chunk = (chunk + 1) % 20) {
+                final int length = Math.min(chunk, data.length - offset);
+                if (length == 1) {
+                    output.write(data[offset]);
+                } else {
+                    output.write(data, offset, length);
+                }
+                offset += length;
+            }
+        }
+
+        assertThat(written.toByteArray(), is(data));
+    }
+
+    @Test
+    public void shouldCountWaitsForSlowOutput() throws IOException {
+        final OutputStream slow = new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                sleep(5);
+            }
+        };
+
+        final AsyncOutputStream output = new AsyncOutputStream(slow, 2, 4);
+        output.write(new byte[40]);
+        output.close();
+
+        assertThat(output.writerStalls().count(), greaterThan(0L));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRethrowOutputErrors() throws IOException {
+        final OutputStream failing = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        try (AsyncOutputStream output = new AsyncOutputStream(failing, 2, 4)) {
+            output.write(new byte[40]);
+        }
+    }
+
+    @Test(expected = IOException.class, timeout = 10_000)
+    public void shouldRethrowRuntimeOutputErrors() throws IOException {
+        final OutputStream failing = new OutputStream() {
+            @Override
+            public void write(final int b) {
+                throw new IllegalStateException("broken sink");
+            }
+        };
+
+        try (AsyncOutputStream output = new AsyncOutputStream(failing, 2, 4)) {
+            output.write(new byte[40]);
+        }
+    }
+
+    @Test
+    public void shouldHandOffPartlyFilledBuffersOnFlush() throws IOException {
+        final AtomicInteger writes = new AtomicInteger();
+
+        try (AsyncOutputStream output = new AsyncOutputStream(countingWrites(writes), 2, 1024)) {
+            writeAndFlush(output, 10);
+        }
+
+        assertThat(writes.get(), is(10));
+    }
+
+    @Test
+    public void shouldNotFlushThroughUnflushedOutputStream() throws IOException {
+        final AtomicInteger writes = new AtomicInteger();
+
+        try (OutputStream output = new Main.UnflushedOutputStream(
+                new AsyncOutputStream(countingWrites(writes), 2, 1024))) {
+            writeAndFlush(output, 10);
+        }
+
+        assertThat(writes.get(), is(1));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRequireTwoBuffers() {
+        new AsyncOutputStream(new ByteArrayOutputStream(), 1, 4);
+    }
+
+    private static OutputStream countingWrites(final AtomicInteger writes) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) {
+                writes.incrementAndGet();
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                if (len > 0) {
+                    writes.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    private static void writeAndFlush(final OutputStream output, final int times) throws IOException {
+        for (int i = 0; i < times; i++) {
+            output.write(new byte[10]);
+            output.flush();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
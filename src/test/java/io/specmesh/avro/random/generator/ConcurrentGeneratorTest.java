@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+public class ConcurrentGeneratorTest {
+
+    private static final String ITERATION_SCHEMA =
+            ResourceUtil.loadContent("test-schemas/iteration.json");
+
+    private static final String CLOCK_SCHEMA = "{\"type\": \"long\", \"logicalType\": \"timestamp-millis\", "
+            + "\"arg.properties\": {\"clock\": {\"step\": 1000}}}";
+
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 500;
+
+    @Test
+    public void shouldProduceEachIterationValueOnceAcrossThreads() throws Exception {
+        final ConcurrentGenerator concurrent = new Generator.Builder()
+                .schemaString(ITERATION_SCHEMA)
+                .generation(7)
+                .buildConcurrent();
+
+        final List<String> actual = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        actual.add(concurrent.generate().toString());
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Generator single = new Generator.Builder()
+                .schemaString(ITERATION_SCHEMA)
+                .generation(7)
+                .build();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < THREADS * PER_THREAD; i++) {
+            expected.add(single.generate().toString());
+        }
+
+        assertThat(actual, containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void shouldGenerateConsecutiveIterationsInBatches() {
+        final ConcurrentGenerator concurrent = new Generator.Builder()
+                .schemaString(ITERATION_SCHEMA)
+                .buildConcurrent();
+        final Generator single = new Generator.Builder()
+                .schemaString(ITERATION_SCHEMA)
+                .build();
+
+        final Object[] batch = new Object[10];
+        concurrent.generate(batch.length, batch);
+
+        for (final Object value : batch) {
+            assertThat(value, is(single.generate()));
+        }
+    }
+
+    @Test
+    public void shouldStartEveryThreadsClockFromTheSameInstant() throws Exception {
+        final ConcurrentGenerator concurrent = new Generator.Builder()
+                .schemaString(CLOCK_SCHEMA)
+                .buildConcurrent();
+        final long first = (Long) concurrent.generate();
+
+        // A thread compiled well after the first must not restart the clock from its own now
+        Thread.sleep(50);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final long second = (Long) executor.submit(() -> concurrent.generate()).get(30, TimeUnit.SECONDS);
+            assertThat(second - first, is(1000L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
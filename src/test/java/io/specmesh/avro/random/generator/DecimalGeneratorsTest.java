@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+public class DecimalGeneratorsTest {
+
+    @Test
+    public void shouldGenerateSameUnboundedDecimalsAsWideGenerator() {
+        for (int precision = 1; precision <= DecimalGenerators.MAX_LONG_PRECISION; precision++) {
+            final ValueGenerator narrow =
+                    new DecimalGenerators.LongDecimalGenerator(new Random(precision), null, precision);
+            final ValueGenerator wide =
+                    new DecimalGenerators.WideDecimalGenerator(new Random(precision), null, precision, 2);
+            for (int i = 0; i < 200; i++) {
+                assertThat(narrow.generate(), is(wide.generate()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldGenerateBytesDecimalsWithinRange() {
+        final ValueGenerator generator = compile(null, 5, 3, Map.of("min", -9.876, "max", 1.234));
+        for (int i = 0; i < 1_000; i++) {
+            final BigDecimal value =
+                    new BigDecimal(new BigInteger(bytes((ByteBuffer) generator.generate())), 3);
+            assertThat(value, greaterThanOrEqualTo(new BigDecimal("-9.876")));
+            assertThat(value, lessThan(new BigDecimal("1.234")));
+        }
+    }
+
+    @Test
+    public void shouldGenerateFixedDecimalsWithinRange() {
+        final Schema fixed = Schema.createFixed("money", null, null, 16);
+        final ValueGenerator generator = compile(fixed, 10, 2, Map.of("min", -100, "max", 100));
+        for (int i = 0; i < 1_000; i++) {
+            final byte[] bytes = ((GenericFixed) generator.generate()).bytes();
+            assertThat(bytes.length, is(16));
+            final BigDecimal value = new BigDecimal(new BigInteger(bytes), 2);
+            assertThat(value, greaterThanOrEqualTo(new BigDecimal("-100")));
+            assertThat(value, lessThan(new BigDecimal("100")));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectFixedRangeThatDoesNotFit() {
+        compile(Schema.createFixed("small", null, null, 2), 4, 0, Map.of("min", 0, "max", 1_000_000));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectRangeWithoutDecimalsOfScale() {
+        compile(null, 4, 2, Map.of("min", 1.001, "max", 1.002));
+    }
+
+    @Test
+    public void shouldMeasureShortestTwosComplement() {
+        for (final long value : new long[] {0, 1, -1, 127, 128, -128, -129, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertThat(DecimalGenerators.byteLength(value), is(BigInteger.valueOf(value).toByteArray().length));
+        }
+    }
+
+    private static ValueGenerator compile(
+            final Schema fixedSchema,
+            final int precision,
+            final int scale,
+            final Map<String, Object> range) {
+        return DecimalGenerators.compile(
+                new Random(42),
+                fixedSchema,
+                LogicalTypes.decimal(precision, scale),
+                Collections.singletonMap(Generator.RANGE_PROP, range));
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
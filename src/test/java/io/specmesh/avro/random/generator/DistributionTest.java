@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+
+public class DistributionTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void shouldFollowZipfsLaw() {
+        final Distribution zipf = new Distribution.Zipf(1_000, 1);
+        final Random random = new Random(0);
+        double harmonic = 0;
+        for (int k = 1; k <= 1_000; k++) {
+            harmonic += 1.0 / k;
+        }
+
+        final int[] counts = new int[1_000];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) zipf.sample(random)]++;
+        }
+
+        assertThat((double) counts[0] / SAMPLES, is(closeTo(1 / harmonic, 0.005)));
+        assertThat((double) counts[1] / SAMPLES, is(closeTo(0.5 / harmonic, 0.005)));
+        assertThat((double) counts[9] / SAMPLES, is(closeTo(0.1 / harmonic, 0.002)));
+    }
+
+    @Test
+    public void shouldSampleHugeDomains() {
+        final long size = 1_000_000_000_000L;
+        final Random random = new Random(1);
+        for (final Distribution distribution : new Distribution[] {
+            new Distribution.Zipf(size, 0.8),
+            new Distribution.Normal(size, size / 2.0, size / 6.0),
+            new Distribution.Exponential(size, size / 10.0),
+            new Distribution.Hotspot(size, 0.01, 0.99)
+        }) {
+            for (int i = 0; i < 10_000; i++) {
+                final long index = distribution.sample(random);
+                assertThat(index, is(greaterThanOrEqualTo(0L)));
+                assertThat(index, is(lessThan(size)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCentreNormalDistributionOnMean() {
+        final Distribution normal = new Distribution.Normal(1_000, 300, 50);
+        final Random random = new Random(2);
+
+        double sum = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            sum += normal.sample(random);
+        }
+
+        assertThat(sum / SAMPLES, is(closeTo(300, 1)));
+    }
+
+    @Test
+    public void shouldCentreNormalDistributionOnTheHotIndex() {
+        final Distribution normal = Distribution.parse(Map.of("type", "normal", "mean", 0, "stddev", 5), 1_000);
+        final Random random = new Random(6);
+
+        final int[] counts = new int[1_000];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) normal.sample(random)]++;
+        }
+
+        assertThat(counts[0], is(greaterThanOrEqualTo(counts[1])));
+        assertThat(counts[1], is(greaterThanOrEqualTo(counts[10])));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectZeroStandardDeviation() {
+        Distribution.parse(Map.of("type", "normal", "mean", 0, "stddev", 0), 1_000);
+    }
+
+    @Test
+    public void shouldKeepExponentialDistributionInsideSmallDomains() {
+        final Distribution exponential = new Distribution.Exponential(10, 100);
+        final Random random = new Random(3);
+
+        final int[] counts = new int[10];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) exponential.sample(random)]++;
+        }
+
+        assertThat(counts[0], is(greaterThanOrEqualTo(counts[9])));
+        assertThat(counts[9], is(greaterThanOrEqualTo(SAMPLES / 20)));
+    }
+
+    @Test
+    public void shouldPickHotspotsWithGivenOdds() {
+        final Distribution hotspot = new Distribution.Hotspot(100, 0.1, 0.75);
+        final Random random = new Random(4);
+
+        int hot = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            if (hotspot.sample(random) < 10) {
+                hot++;
+            }
+        }
+
+        assertThat((double) hot / SAMPLES, is(closeTo(0.75, 0.01)));
+    }
+
+    @Test
+    public void shouldSkewGeneratedValuesAndOptions() {
+        final Generator generator = new Generator.Builder()
+                .schemaString(ResourceUtil.loadContent("test-schemas/distributions.json"))
+                .random(new Random(5))
+                .build();
+
+        final Map<Object, Integer> countries = new HashMap<>();
+        int firstCustomer = 0;
+        for (int i = 0; i < 10_000; i++) {
+            final GenericRecord record = (GenericRecord) generator.generate();
+            countries.merge(record.get("country"), 1, Integer::sum);
+            if ((Long) record.get("customer_id") == 1L) {
+                firstCustomer++;
+            }
+            assertThat((Integer) record.get("age"), is(greaterThanOrEqualTo(18)));
+        }
+
+        assertThat(firstCustomer, is(greaterThanOrEqualTo(500)));
+        assertThat(countries.get("US") + countries.get("GB") + countries.get("DE"), is(greaterThanOrEqualTo(8_500)));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectUnknownDistributions() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"int\", \"arg.properties\": {\"distribution\": {\"type\": \"lognormal\"}}}"
+        ).build();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectDistributionsOnUnsupportedSchemas() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"double\", \"arg.properties\": {\"distribution\": {\"type\": \"zipf\"}}}"
+        ).build();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectDistributionWithWeights() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"int\", \"arg.properties\": {\"options\": [1, 2], \"weights\": [1, 2], "
+                        + "\"distribution\": {\"type\": \"zipf\"}}}"
+        ).build();
+    }
+}
@@ -18,12 +18,17 @@ package io.specmesh.avro.random.generator;
 
 import static io.specmesh.avro.random.generator.util.ResourceUtil.loadContent;
 import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -97,4 +102,45 @@ public class GeneratorTest {
     assertEquals(generatorA.generate(), generatorB.generate());
     assertEquals(generatorA.generate(), generatorB.generate());
   }
+
+  @Test
+  public void shouldWriteSameBytesAsEncodingGeneratedValues() throws IOException {
+    long seed = 100L;
+    Generator generatorA = new Generator.Builder()
+        .schemaString(content)
+        .random(new Random(seed))
+        .build();
+    Generator generatorB = new Generator.Builder()
+        .schemaString(content)
+        .random(new Random(seed))
+        .build();
+    GenericDatumWriter<Object> writer = new GenericDatumWriter<>(generatorA.schema());
+    for (int i = 0; i < 10; i++) {
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      BinaryEncoder expectedEncoder = EncoderFactory.get().directBinaryEncoder(expected, null);
+      writer.write(generatorA.generate(), expectedEncoder);
+
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      generatorB.write(EncoderFactory.get().directBinaryEncoder(actual, null));
+
+      assertArrayEquals(fileName, expected.toByteArray(), actual.toByteArray());
+    }
+  }
+
+  @Test
+  public void shouldGenerateSameValuesInBatches() {
+    long seed = 100L;
+    Generator generatorA = new Generator.Builder()
+        .schemaString(content)
+        .random(new Random(seed))
+        .build();
+    Generator generatorB = new Generator.Builder()
+        .schemaString(content)
+        .random(new Random(seed))
+        .build();
+    Object[] batch = generatorB.generateBatch(5);
+    for (Object value : batch) {
+      assertEquals(generatorA.generate(), value);
+    }
+  }
 }
@@ -17,6 +17,7 @@
 package io.specmesh.avro.random.generator;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import io.specmesh.avro.random.generator.util.ResourceUtil;
@@ -24,6 +25,7 @@ import org.apache.avro.generic.GenericRecord;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
 import java.util.stream.IntStream;
 
 
@@ -96,4 +98,69 @@ public class IterationTest {
             assertThat("Different on iteration " + i, simulation.generate(), is(generator.generate()));
         }
     }
+
+    @Test
+    public void shouldSeekToGeneration() {
+        final Generator seeking = new Generator.Builder().schemaString(ITERATION_SCHEMA).build();
+        for (long i = 0; i < 100; i++) {
+            generator.generate();
+        }
+        seeking.seek(100);
+        assertThat(seeking.generate(), is(generator.generate()));
+        seeking.seek(0);
+        assertThat(seeking.generate(), is(new Generator.Builder().schemaString(ITERATION_SCHEMA).build().generate()));
+    }
+
+    @Test
+    public void shouldMatchArbitraryPrecisionIterators() {
+        final long[][] integral = {
+            {0, 10, 1, 0}, {50, -10, -3, 40}, {-5, 5, 4, 1}, {Integer.MIN_VALUE, Integer.MAX_VALUE, 7, 0},
+            {Long.MAX_VALUE - 10, Long.MAX_VALUE, 3, Long.MAX_VALUE - 10}
+        };
+        for (final long[] args : integral) {
+            for (final boolean asInt : new boolean[] {true, false}) {
+                final Generator.SeekableIterator primitive = PrimitiveIterators.integral(
+                        args[0], args[1], args[2], args[3], 3, asInt);
+                final Generator.SeekableIterator exact = new Generator.IntegralIterator(
+                        args[0], args[1], args[2], args[3], 3,
+                        asInt ? Generator.IntegralIterator.Type.INTEGER : Generator.IntegralIterator.Type.LONG);
+                assertSameValues(primitive, exact);
+            }
+        }
+
+        final double[][] decimal = {
+            {0, 1, 0.1, 0}, {5, -5, -0.25, 2.5}, {-1.5, 10.75, 0.3, 0.2}, {1000, 2000, 0.125, 1500}
+        };
+        for (final double[] args : decimal) {
+            for (final boolean asFloat : new boolean[] {true, false}) {
+                final Generator.SeekableIterator primitive = PrimitiveIterators.decimal(
+                        args[0], args[1], args[2], args[3], 3, asFloat);
+                final Generator.SeekableIterator exact = new Generator.DecimalIterator(
+                        args[0], args[1], args[2], args[3], 3,
+                        asFloat ? Generator.DecimalIterator.Type.FLOAT : Generator.DecimalIterator.Type.DOUBLE);
+                assertSameValues(primitive, exact);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFallBackToArbitraryPrecisionWhenPrimitivesCouldOverflow() {
+        assertThat(PrimitiveIterators.integral(Long.MIN_VALUE, Long.MAX_VALUE, 1, 0, 0, false), nullValue());
+        assertThat(PrimitiveIterators.decimal(0, 1e300, 1, 0, 0, false), nullValue());
+        assertThat(PrimitiveIterators.decimal(0, 1, 1e-30, 0, 0, false), nullValue());
+    }
+
+    private static void assertSameValues(
+            final Generator.SeekableIterator primitive,
+            final Generator.SeekableIterator exact) {
+        final Random random = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            if (i % 50 == 0) {
+                final long seek = random.nextInt(1_000_000);
+                primitive.seek(seek);
+                exact.seek(seek);
+            }
+            assertThat(primitive.next(), is(exact.next()));
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class KeyspaceTest {
+
+    private static final int CARDINALITY = 50;
+    private static final int RECORDS = 5_000;
+
+    @Test
+    public void shouldDrawExactlyCardinalityLongKeys() {
+        assertThat(distinctKeys(schema("\"long\"")).size(), is(CARDINALITY));
+    }
+
+    @Test
+    public void shouldDrawExactlyCardinalityIntKeys() {
+        assertThat(distinctKeys(schema("\"int\"")).size(), is(CARDINALITY));
+    }
+
+    @Test
+    public void shouldDrawExactlyCardinalityStringKeys() {
+        assertThat(distinctKeys(schema("\"string\"")).size(), is(CARDINALITY));
+    }
+
+    @Test
+    public void shouldDeriveKeysFromIndexAloneForGeneratedFields() {
+        final Schema schema = schema(
+                "{\"type\": \"string\", \"arg.properties\": {\"regex\": \"[a-z]{12}\"}}");
+        final Keyspace keyspace = new Keyspace("id", CARDINALITY, 7L);
+
+        final Set<Object> first = keys(new Generator(schema, new Random(1), 0L, new HashMap<>(), keyspace, 0L));
+        final Set<Object> second = keys(new Generator(schema, new Random(2), 0L, new HashMap<>(), keyspace, 0L));
+
+        assertThat(first.size(), is(CARDINALITY));
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void shouldWriteTheKeysItGenerates() throws Exception {
+        final Schema schema = schema("\"long\"");
+        final Keyspace keyspace = new Keyspace("id", CARDINALITY, 7L);
+        final Generator generatorA = new Generator(schema, new Random(3), 0L, new HashMap<>(), keyspace, 0L);
+        final Generator generatorB = new Generator(schema, new Random(3), 0L, new HashMap<>(), keyspace, 0L);
+        final GenericDatumWriter<Object> writer = new GenericDatumWriter<>(schema);
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        final BinaryEncoder expectedEncoder = EncoderFactory.get().directBinaryEncoder(expected, null);
+        final BinaryEncoder actualEncoder = EncoderFactory.get().directBinaryEncoder(actual, null);
+        for (int i = 0; i < 100; i++) {
+            writer.write(generatorA.generate(), expectedEncoder);
+            generatorB.write(actualEncoder);
+        }
+
+        assertThat(actual.toByteArray(), is(expected.toByteArray()));
+    }
+
+    @Test
+    public void shouldOnlyDrawTheTopLevelRecordsKey() {
+        final Schema schema = new Schema.Parser().parse(ResourceUtil.loadContent("test-schemas/recursive.json"));
+        final Generator generator =
+                new Generator(schema, new Random(5), 0L, new HashMap<>(), new Keyspace("value", 1, 7L), 0L);
+
+        final Set<Object> topLevel = new HashSet<>();
+        final Set<Object> nested = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            final GenericRecord record = (GenericRecord) generator.generate();
+            topLevel.add(record.get("value"));
+            for (GenericRecord next = (GenericRecord) record.get("next");
+                 next != null;
+                 next = (GenericRecord) next.get("next")) {
+                nested.add(next.get("value"));
+            }
+        }
+
+        assertThat(topLevel.size(), is(1));
+        assertThat(nested.size(), greaterThan(1));
+    }
+
+    @Test
+    public void shouldShareOneKeyspaceBetweenBuildsOfABuilder() {
+        final Generator.Builder builder = new Generator.Builder()
+                .schema(schema("\"long\""))
+                .random(new Random(3))
+                .keyspace("id", CARDINALITY);
+
+        assertThat(keys(builder.build()), is(keys(builder.build())));
+    }
+
+    @Test
+    public void shouldNameTheClockWhenRejectingAClockedKeyField() {
+        try {
+            new Generator.Builder()
+                    .schema(schema("{\"type\": \"long\", \"logicalType\": \"timestamp-millis\", "
+                            + "\"arg.properties\": {\"clock\": {}}}"))
+                    .keyspace("id", CARDINALITY)
+                    .build();
+            fail("Expected the clocked key field to be rejected");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), is("Key field id cannot use clock"));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectUnknownKeyField() {
+        new Generator.Builder().schema(schema("\"long\"")).keyspace("missing", CARDINALITY).build();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectMoreKeysThanAnIntCanHold() {
+        new Generator.Builder().schema(schema("\"int\"")).keyspace("id", 1L << 33).build();
+    }
+
+    private static Set<Object> distinctKeys(final Schema schema) {
+        return keys(new Generator.Builder()
+                .schema(schema)
+                .random(RandomAlgorithm.XOROSHIRO, 11L)
+                .keyspace("id", CARDINALITY)
+                .build());
+    }
+
+    private static Set<Object> keys(final Generator generator) {
+        final Set<Object> keys = new HashSet<>();
+        for (int i = 0; i < RECORDS; i++) {
+            keys.add(((GenericRecord) generator.generate()).get("id"));
+        }
+        return keys;
+    }
+
+    private static Schema schema(final String keyType) {
+        return new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"update\", \"fields\": ["
+                + "{\"name\": \"value\", \"type\": \"double\"},"
+                + "{\"name\": \"id\", \"type\": " + keyType + "}]}");
+    }
+}
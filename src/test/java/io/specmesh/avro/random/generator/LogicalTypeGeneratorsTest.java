@@ -0,0 +1,134 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.apache.avro.Schema;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class LogicalTypeGeneratorsTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void shouldGenerateDatesAndTimestampsBefore2100() {
+        final Generator dates = generator("{\"type\": \"int\", \"logicalType\": \"date\"}");
+        final Generator timestamps = generator("{\"type\": \"long\", \"logicalType\": \"timestamp-micros\"}");
+        for (int i = 0; i < 1_000; i++) {
+            assertThat((Integer) dates.generate(), lessThan(47_482));
+            assertThat((Long) timestamps.generate(), lessThan(4_102_444_800_000_000L));
+        }
+    }
+
+    @Test
+    public void shouldGenerateTimesWithinADay() {
+        final Generator times = generator("{\"type\": \"long\", \"logicalType\": \"time-micros\"}");
+        for (int i = 0; i < 1_000; i++) {
+            final long time = (Long) times.generate();
+            assertThat(time, greaterThanOrEqualTo(0L));
+            assertThat(time, lessThan(86_400_000_000L));
+        }
+    }
+
+    @Test
+    public void shouldFollowClockInOrderWhenJitterIsBelowStep() {
+        final Generator clock = generator(clock("\"start\": " + START + ", \"step\": 10, \"jitter\": 9"));
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < 1_000; i++) {
+            final long value = (Long) clock.generate();
+            assertThat(value, greaterThan(previous));
+            assertThat(value, greaterThan(START + i * 10L - 10));
+            previous = value;
+        }
+    }
+
+    @Test
+    public void shouldDeliverTheConfiguredFractionOfValuesLate() {
+        final Generator clock = generator(clock(
+                "\"start\": " + START + ", \"step\": 10, \"disorder\": 0.2, \"lateness\": 50"));
+        int late = 0;
+        for (int i = 0; i < 10_000; i++) {
+            final long value = (Long) clock.generate();
+            final long expected = START + i * 10L;
+            assertThat(value, greaterThanOrEqualTo(expected - 50));
+            if (value < expected) {
+                late++;
+            }
+        }
+        assertThat(late, greaterThan(1_800));
+        assertThat(late, lessThan(2_200));
+    }
+
+    @Test
+    public void shouldStartClockAtGeneration() {
+        final Generator clock = new Generator.Builder()
+                .schema(new Schema.Parser().parse(clock("\"start\": " + START + ", \"step\": 10")))
+                .generation(5)
+                .build();
+        assertThat(clock.generate(), is(START + 50));
+    }
+
+    @Test
+    public void shouldGenerateRandomUuids() {
+        final Generator uuids = generator("{\"type\": \"string\", \"logicalType\": \"uuid\"}");
+        for (int i = 0; i < 100; i++) {
+            final String uuid = (String) uuids.generate();
+            assertThat(uuid.matches(LogicalTypeGenerators.UUID_REGEX), is(true));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectClockWithoutTemporalLogicalType() {
+        generator("{\"type\": \"long\", \"arg.properties\": {\"clock\": {}}}");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectClockWithRange() {
+        generator("{\"type\": \"long\", \"logicalType\": \"timestamp-millis\", "
+                + "\"arg.properties\": {\"clock\": {}, \"range\": {\"min\": 0, \"max\": 10}}}");
+    }
+
+    @Test
+    public void shouldRecogniseTemporalSchemas() {
+        assertThat(LogicalTypeGenerators.isTemporal(parse("{\"type\": \"int\", \"logicalType\": \"date\"}")), is(true));
+        assertThat(LogicalTypeGenerators.isTemporal(parse("\"long\"")), is(true));
+        assertThat(LogicalTypeGenerators.isTemporal(parse("\"int\"")), is(false));
+        assertThat(LogicalTypeGenerators.isTemporal(parse("\"null\"")), is(false));
+    }
+
+    private static Schema parse(final String schema) {
+        return new Schema.Parser().parse(schema);
+    }
+
+    private static String clock(final String fields) {
+        return "{\"type\": \"long\", \"logicalType\": \"timestamp-millis\", "
+                + "\"arg.properties\": {\"clock\": {" + fields + "}}}";
+    }
+
+    private static Generator generator(final String schema) {
+        return new Generator.Builder()
+                .schema(new Schema.Parser().parse(schema))
+                .random(new Random(42))
+                .build();
+    }
+}
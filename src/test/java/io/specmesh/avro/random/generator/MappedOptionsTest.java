@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+
+public class MappedOptionsTest {
+
+    private static final Schema CUSTOMER_SCHEMA = new Schema.Parser().parse(
+            "{\"type\": \"record\", \"name\": \"customer\", \"fields\": ["
+                    + "{\"name\": \"id\", \"type\": \"long\"}, {\"name\": \"name\", \"type\": \"string\"}]}"
+    );
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldDecodeEachOptionOnDemand() throws IOException {
+        final List<GenericRecord> customers = customers(500);
+        final MappedOptions options = MappedOptions.map(
+                CUSTOMER_SCHEMA, write(customers).toPath(), MappedOptions.MAX_SEGMENT_SIZE);
+
+        assertThat(options.size(), is(500));
+        for (int i = 0; i < customers.size(); i++) {
+            assertThat(options.get(i), is(customers.get(i)));
+        }
+    }
+
+    @Test
+    public void shouldSplitLargeFilesIntoSegmentsOnOptionBoundaries() throws IOException {
+        final List<GenericRecord> customers = customers(500);
+        final MappedOptions options = MappedOptions.map(CUSTOMER_SCHEMA, write(customers).toPath(), 100);
+
+        assertThat(options.size(), is(500));
+        final MappedOptions.Reader reader = options.reader(0);
+        for (int i = customers.size() - 1; i >= 0; i--) {
+            assertThat(reader.read(i), is(customers.get(i)));
+        }
+    }
+
+    @Test
+    public void shouldKeepCachedOptions() throws IOException {
+        final MappedOptions.Reader reader = MappedOptions.map(
+                CUSTOMER_SCHEMA, write(customers(10)).toPath(), MappedOptions.MAX_SEGMENT_SIZE).reader(4);
+
+        assertThat(reader.read(3), is(sameInstance(reader.read(3))));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectTruncatedFiles() throws IOException {
+        final File file = write(customers(3));
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+
+        MappedOptions.map(CUSTOMER_SCHEMA, file.toPath(), MappedOptions.MAX_SEGMENT_SIZE);
+    }
+
+    @Test
+    public void shouldWriteMappedOptionsAsTheyAreGenerated() throws IOException {
+        final String schema = schema(write(customers(50)), ", \"cache\": 8");
+        final Generator generatorA = new Generator.Builder().schemaString(schema).random(new Random(7)).build();
+        final Generator generatorB = new Generator.Builder().schemaString(schema).random(new Random(7)).build();
+        final GenericDatumWriter<Object> writer = new GenericDatumWriter<>(generatorA.schema());
+        for (int i = 0; i < 100; i++) {
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            final BinaryEncoder expectedEncoder = EncoderFactory.get().directBinaryEncoder(expected, null);
+            writer.write(generatorA.generate(), expectedEncoder);
+
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            generatorB.write(EncoderFactory.get().directBinaryEncoder(actual, null));
+
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectMappedJsonOptions() throws IOException {
+        new Generator.Builder()
+                .schemaString(schema(write(customers(1)), "").replace("binary", "json"))
+                .build();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectCacheWithoutMapping() throws IOException {
+        new Generator.Builder()
+                .schemaString(schema(write(customers(1)), ", \"cache\": 8").replace("true", "false"))
+                .build();
+    }
+
+    private static List<GenericRecord> customers(final int count) {
+        final List<GenericRecord> customers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final GenericRecord customer = new GenericData.Record(CUSTOMER_SCHEMA);
+            customer.put("id", (long) i * 1_000_003);
+            customer.put("name", "customer-" + i);
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    private File write(final List<GenericRecord> customers) throws IOException {
+        final File file = folder.newFile();
+        final GenericDatumWriter<Object> writer = new GenericDatumWriter<>(CUSTOMER_SCHEMA);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(bytes, null);
+        for (final GenericRecord customer : customers) {
+            writer.write(customer, encoder);
+        }
+        Files.write(file.toPath(), bytes.toByteArray());
+        return file;
+    }
+
+    private static String schema(final File file, final String extraFields) {
+        final String customer = CUSTOMER_SCHEMA.toString();
+        return customer.substring(0, customer.length() - 1)
+                + String.format(
+                        ", \"arg.properties\": {\"options\": "
+                                + "{\"file\": \"%s\", \"encoding\": \"binary\", \"mapped\": true%s}}}",
+                        file.getAbsolutePath().replace("\\", "\\\\"),
+                        extraFields
+                );
+    }
+}
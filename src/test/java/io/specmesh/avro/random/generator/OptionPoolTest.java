@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+
+public class OptionPoolTest {
+
+    @Test
+    public void shouldPackPrimitiveOptions() throws IOException {
+        assertPacked(Schema.Type.INT, Arrays.asList(1, -2, Integer.MAX_VALUE), OptionPool.IntPool.class);
+        assertPacked(Schema.Type.LONG, Arrays.asList(1L, Long.MIN_VALUE), OptionPool.LongPool.class);
+        assertPacked(Schema.Type.FLOAT, Arrays.asList(0.5f, -1.25f), OptionPool.FloatPool.class);
+        assertPacked(Schema.Type.DOUBLE, Arrays.asList(0.1, Double.NaN), OptionPool.DoublePool.class);
+        assertPacked(Schema.Type.STRING, Arrays.asList("", "a", "naïve", "✓✓"), OptionPool.StringPool.class);
+    }
+
+    @Test
+    public void shouldKeepUtf8OptionsAsUtf8() {
+        final List<Object> options = OptionPool.pack(
+                Schema.create(Schema.Type.STRING), Arrays.asList(new Utf8("one"), new Utf8("two")));
+
+        assertThat(options.get(1), is(new Utf8("two")));
+    }
+
+    @Test
+    public void shouldShareEachBoxedOptionBetweenPicks() {
+        final List<Object> longs = OptionPool.pack(Schema.create(Schema.Type.LONG), Arrays.asList(1000L, 2000L));
+        final List<Object> strings = OptionPool.pack(Schema.create(Schema.Type.STRING), Arrays.asList("one", "two"));
+
+        assertThat(longs.get(1), is(sameInstance(longs.get(1))));
+        assertThat(strings.get(1), is(sameInstance(strings.get(1))));
+    }
+
+    @Test
+    public void shouldLeaveOtherOptionsUnpacked() {
+        final List<Object> booleans = Arrays.asList(true, false);
+
+        assertThat(OptionPool.pack(Schema.create(Schema.Type.BOOLEAN), booleans), is(sameInstance(booleans)));
+    }
+
+    private static void assertPacked(
+            final Schema.Type type,
+            final List<Object> options,
+            final Class<?> poolType) throws IOException {
+        final Schema schema = Schema.create(type);
+        final List<Object> packed = OptionPool.pack(schema, options);
+
+        assertThat(packed, is(instanceOf(poolType)));
+        assertThat(packed, is(options));
+        final GenericDatumWriter<Object> writer = new GenericDatumWriter<>(schema);
+        for (int i = 0; i < options.size(); i++) {
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            writer.write(options.get(i), EncoderFactory.get().directBinaryEncoder(expected, null));
+
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            final BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(actual, null);
+            ((OptionPool) packed).write(i, encoder);
+
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+
+public class PacerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now;
+    private long slept;
+    private int sleeps;
+
+    @Test
+    public void shouldHoldToConstantRate() {
+        final Pacer pacer = pacer(RateProfile.constant(50_000));
+
+        for (int i = 0; i < 100_000; i++) {
+            pacer.acquire(1);
+        }
+
+        assertThat((double) now, closeTo(2 * SECOND, SECOND / 100.0));
+    }
+
+    @Test
+    public void shouldReleaseRecordsInBatchesBetweenWaits() {
+        final Pacer pacer = pacer(RateProfile.constant(50_000));
+
+        for (int i = 0; i < 50_000; i++) {
+            pacer.acquire(1);
+        }
+
+        assertThat(sleeps, lessThan(1_001));
+        assertThat(slept / sleeps, greaterThanOrEqualTo(Pacer.MIN_WAIT_NANOS));
+    }
+
+    @Test
+    public void shouldPaceLargePermitCounts() {
+        final Pacer pacer = pacer(RateProfile.constant(1_000_000));
+
+        for (int i = 0; i < 10; i++) {
+            pacer.acquire(500_000);
+        }
+
+        assertThat((double) now, closeTo(5 * SECOND, SECOND / 100.0));
+    }
+
+    @Test
+    public void shouldWaitOutZeroRate() {
+        final Pacer pacer = pacer(RateProfile.step(Duration.ofSeconds(1), 0, 1_000));
+
+        pacer.acquire(1);
+
+        assertThat(now >= SECOND, is(true));
+    }
+
+    @Test
+    public void shouldNeverWaitWhenUnlimited() {
+        for (int i = 0; i < 1_000; i++) {
+            Pacer.UNLIMITED.acquire(1_000_000);
+        }
+    }
+
+    @Test
+    public void shouldParseConstantProfile() {
+        assertThat(RateProfile.parse("50000").rate(123L), is(50_000.0));
+    }
+
+    @Test
+    public void shouldParseRampProfile() {
+        final RateProfile profile = RateProfile.parse("ramp:100:200:10s");
+
+        assertThat(profile.rate(0), is(100.0));
+        assertThat(profile.rate(5 * SECOND), is(150.0));
+        assertThat(profile.rate(20 * SECOND), is(200.0));
+    }
+
+    @Test
+    public void shouldParseSineProfile() {
+        final RateProfile profile = RateProfile.parse("sine:1000:500:4m");
+
+        assertThat(profile.rate(0), is(1000.0));
+        assertThat(profile.rate(60 * SECOND), closeTo(1500.0, 1e-6));
+        assertThat(profile.rate(180 * SECOND), closeTo(500.0, 1e-6));
+    }
+
+    @Test
+    public void shouldParseStepProfile() {
+        final RateProfile profile = RateProfile.parse("step:500ms:10,20,30");
+
+        assertThat(profile.rate(0), is(10.0));
+        assertThat(profile.rate(SECOND), is(30.0));
+        assertThat(profile.rate(3 * SECOND / 2), is(10.0));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectNegativeRate() {
+        RateProfile.parse("sine:100:200:1h");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectDurationWithoutUnit() {
+        RateProfile.parse("ramp:1:2:30");
+    }
+
+    private Pacer pacer(final RateProfile profile) {
+        return new Pacer(profile, () -> now, nanos -> {
+            now += nanos;
+            slept += nanos;
+            sleeps++;
+        });
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+public class ParallelWriterTest {
+
+    private static final Schema ITERATION_SCHEMA =
+            new Schema.Parser().parse(ResourceUtil.loadContent("test-schemas/iteration.json"));
+
+    private static final long ITERATIONS = ParallelWriter.BATCH_SIZE * 5L + 17;
+
+    @Test
+    public void shouldWriteSameJsonAsSingleThreadWhenOrdered() throws IOException {
+        for (boolean pretty : new boolean[] {true, false}) {
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            Main.writeJson(generator(), ITERATIONS, expected, pretty);
+
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            new ParallelWriter(ITERATION_SCHEMA, 3, true, RandomAlgorithm.JDK, 0L).writeJson(ITERATIONS, actual, pretty);
+
+            assertThat(actual.toString(StandardCharsets.UTF_8), is(expected.toString(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void shouldWriteSameRecordsAsSingleThreadWhenUnordered() throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Main.writeJson(generator(), ITERATIONS, expected, false);
+
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new ParallelWriter(ITERATION_SCHEMA, 4, false, RandomAlgorithm.SPLITTABLE, 0L).writeJson(ITERATIONS, actual, false);
+
+        assertThat(lines(actual), containsInAnyOrder(lines(expected).toArray()));
+    }
+
+    @Test
+    public void shouldWriteSameBinaryRecordsAsSingleThreadWhenOrdered() throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Main.writeBinary(generator(), ITERATIONS, expected);
+
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new ParallelWriter(ITERATION_SCHEMA, 3, true, RandomAlgorithm.XOROSHIRO, 0L).writeBinary(ITERATIONS, actual);
+
+        assertThat(records(actual), is(records(expected)));
+    }
+
+    @Test
+    public void shouldGatherWriteBlocksToAFile() throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Main.writeBinary(generator(), ITERATIONS, expected);
+
+        final File file = File.createTempFile("parallel-writer", ".avro");
+        file.deleteOnExit();
+        try (FileOutputStream actual = new FileOutputStream(file)) {
+            new ParallelWriter(ITERATION_SCHEMA, 2, true, RandomAlgorithm.JDK, 0L).writeBinary(ITERATIONS, actual);
+        }
+
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        written.write(Files.readAllBytes(file.toPath()));
+        assertThat(records(written), is(records(expected)));
+    }
+
+    @Test
+    public void shouldWriteSameBinaryRecordsWhenPaced() throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Main.writeBinary(generator(), ITERATIONS, expected);
+
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new ParallelWriter(ITERATION_SCHEMA, 3, true, RandomAlgorithm.JDK, 0L).writeBinary(
+                ITERATIONS, actual, new Pacer(RateProfile.parse("1000000000")), Pacer.UNLIMITED);
+
+        assertThat(records(actual), is(records(expected)));
+    }
+
+    private static Generator generator() {
+        return new Generator.Builder().schema(ITERATION_SCHEMA).build();
+    }
+
+    private static List<String> lines(final ByteArrayOutputStream output) {
+        return Arrays.asList(output.toString(StandardCharsets.UTF_8).split("\\R"));
+    }
+
+    private static List<Object> records(final ByteArrayOutputStream output) throws IOException {
+        final List<Object> records = new ArrayList<>();
+        try (DataFileStream<Object> stream = new DataFileStream<>(
+                new ByteArrayInputStream(output.toByteArray()), new GenericDatumReader<>())) {
+            stream.forEach(records::add);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+public class RandomAlgorithmTest {
+
+    @Test
+    public void shouldMatchXoroshiroReferenceOutput() {
+        final Xoroshiro128PlusPlus random = new Xoroshiro128PlusPlus(1L, 2L);
+
+        assertThat(random.nextLong(), is(393217L));
+    }
+
+    @Test
+    public void shouldMatchJdkL64X128MixRandomOutput() {
+        // The first value of the JDK 17 L64X128MixRandom seeded with 42
+        assertThat(new L64X128MixRandom(42L).nextLong(), is(-5600175640509174766L));
+    }
+
+    @Test
+    public void shouldGenerateSameRecordsForSameSeed() {
+        final String schema = ResourceUtil.loadContent("test-schemas/matryoshka-dolls.json");
+        for (RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            final Generator generatorA =
+                    new Generator.Builder().schemaString(schema).random(algorithm, 42L).build();
+            final Generator generatorB =
+                    new Generator.Builder().schemaString(schema).random(algorithm, 42L).build();
+
+            for (int i = 0; i < 10; i++) {
+                assertThat(algorithm.name(), generatorA.generate(), is(generatorB.generate()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCreateReproducibleIndependentStreams() {
+        for (RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            final List<Long> first = firstValues(algorithm.streams(7L, 4));
+
+            assertThat(algorithm.name(), firstValues(algorithm.streams(7L, 4)), is(first));
+            assertThat(algorithm.name(), first.stream().distinct().count(), is(4L));
+        }
+    }
+
+    @Test
+    public void shouldJumpToNewState() {
+        final Xoroshiro128PlusPlus random = new Xoroshiro128PlusPlus(3L);
+        final Xoroshiro128PlusPlus before = random.jump();
+
+        assertThat(random.nextLong(), is(not(before.nextLong())));
+    }
+
+    @Test
+    public void shouldFindAlgorithmByName() {
+        for (RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            assertThat(RandomAlgorithm.forName(algorithm.algorithmName().toUpperCase()), is(algorithm));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectUnknownAlgorithm() {
+        RandomAlgorithm.forName("mersenne");
+    }
+
+    private static List<Long> firstValues(List<Random> streams) {
+        return IntStream.range(0, streams.size())
+                .mapToObj(i -> streams.get(i).nextLong())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class RecordPoolTest {
+
+    private static final Schema SCHEMA = new Schema.Parser().parse(
+            "{\"type\": \"record\", \"name\": \"event\", \"fields\": ["
+            + "{\"name\": \"id\", \"type\": \"long\"},"
+            + "{\"name\": \"payload\", \"type\": {\"type\": \"string\", \"arg.properties\": {\"regex\": \"[a-z]{16}\"}}},"
+            + "{\"name\": \"at\", \"type\": [\"null\", {\"type\": \"long\", \"logicalType\": \"timestamp-millis\"}]},"
+            + "{\"name\": \"tail\", \"type\": \"int\"}"
+            + "]}");
+
+    private static final int POOL_SIZE = 10;
+
+    @Test
+    public void shouldCycleThroughThePooledRecords() {
+        final Generator expected = generator(4L);
+        final RecordPool pool = new RecordPool(generator(4L), POOL_SIZE, "id", null, null);
+        final RecordPool.Reader reader = pool.reader(new Random(), false);
+
+        final Object[] records = new Object[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            records[i] = expected.generate();
+        }
+        for (int i = 0; i < 3 * POOL_SIZE; i++) {
+            final GenericRecord replayed = decode(reader.next());
+            assertThat(replayed, is(records[i % POOL_SIZE]));
+            assertThat(reader.key(), is(replayed.get("id")));
+        }
+    }
+
+    @Test
+    public void shouldSampleEveryPooledRecord() {
+        final RecordPool pool = new RecordPool(generator(5L), POOL_SIZE, null, null, null);
+        final RecordPool.Reader reader = pool.reader(new Random(6L), true);
+
+        final Set<Object> payloads = new HashSet<>();
+        for (int i = 0; i < 100 * POOL_SIZE; i++) {
+            payloads.add(decode(reader.next()).get("payload").toString());
+        }
+
+        assertThat(payloads.size(), is(POOL_SIZE));
+    }
+
+    @Test
+    public void shouldDrawFreshKeysFromTheKeyspace() {
+        final Keyspace keyspace = new Keyspace("id", 1_000, 7L);
+        final RecordPool pool = new RecordPool(generator(8L), POOL_SIZE, "id", keyspace, null);
+        final RecordPool.Reader reader = pool.reader(new Random(9L), false);
+
+        final Set<Object> ids = new HashSet<>();
+        final Set<Object> payloads = new HashSet<>();
+        for (int i = 0; i < 100 * POOL_SIZE; i++) {
+            final GenericRecord replayed = decode(reader.next());
+            assertThat(reader.key(), is(replayed.get("id")));
+            ids.add(replayed.get("id"));
+            payloads.add(replayed.get("payload").toString());
+        }
+
+        assertThat(ids.size(), greaterThanOrEqualTo(500));
+        assertThat(payloads.size(), is(POOL_SIZE));
+    }
+
+    @Test
+    public void shouldSetTheTimestampToTheTimeOfReplay() {
+        final Keyspace keyspace = new Keyspace("id", 1_000, 7L);
+        final RecordPool pool = new RecordPool(generator(10L), POOL_SIZE, null, keyspace, "at");
+        final RecordPool.Reader reader = pool.reader(new Random(11L), false);
+
+        for (int i = 0; i < 2 * POOL_SIZE; i++) {
+            final long before = System.currentTimeMillis();
+            final GenericRecord replayed = decode(reader.next());
+            final long after = System.currentTimeMillis();
+
+            assertThat((Long) replayed.get("at"), greaterThanOrEqualTo(before));
+            assertThat((Long) replayed.get("at"), lessThanOrEqualTo(after));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectATimestampFieldThatCannotHoldTheTime() {
+        new RecordPool(generator(12L), POOL_SIZE, null, null, "payload");
+    }
+
+    private static Generator generator(final long seed) {
+        return new Generator.Builder().schema(SCHEMA).random(new Random(seed)).build();
+    }
+
+    private static GenericRecord decode(final ByteBuffer encoded) {
+        final byte[] bytes = new byte[encoded.remaining()];
+        encoded.duplicate().get(bytes);
+        try {
+            return new GenericDatumReader<GenericRecord>(SCHEMA)
+                    .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
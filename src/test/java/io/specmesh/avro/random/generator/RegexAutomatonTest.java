@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+
+public class RegexAutomatonTest {
+
+    private static final String[] PATTERNS = {
+        "[a-zA-Z]{5,15}",
+        "[A-Z]{2}\\d{6}[A-Z]",
+        "User_[1-9]{0,1}",
+        "Item_[1-9][0-9]{0,2}",
+        "\\[[0-9][0-9],[0-9][0-9]\\]",
+        "https://www[.]acme[.]com/product/[a-z]{5}",
+        "(cat|dog|bird)s?-\\w{3}",
+        "\\Qa.b*c\\E[x-z]"
+    };
+
+    @Test
+    public void shouldOnlyGenerateMatchingStrings() {
+        final Random random = new Random(1);
+        for (final String regex : PATTERNS) {
+            final RegexAutomaton automaton = RegexAutomaton.compile(regex, 0, Integer.MAX_VALUE - 1);
+            final Pattern pattern = Pattern.compile(regex);
+            for (int i = 0; i < 1_000; i++) {
+                final String value = walk(automaton, random);
+                assertThat(regex + " generated " + value, pattern.matcher(value).matches(), is(true));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRespectLengthBoundsWithoutRetrying() {
+        final Random random = new Random(2);
+        final RegexAutomaton automaton = RegexAutomaton.compile("(ab|c)*d?", 7, 9);
+        final Pattern pattern = Pattern.compile("(ab|c)*d?");
+        for (int i = 0; i < 1_000; i++) {
+            final String value = walk(automaton, random);
+            assertThat(value, value.length(), is(greaterThanOrEqualTo(7)));
+            assertThat(value, value.length(), is(lessThanOrEqualTo(9)));
+            assertThat(value, pattern.matcher(value).matches(), is(true));
+        }
+    }
+
+    @Test
+    public void shouldGenerateExactLengthsFromUnboundedRepetition() {
+        final Random random = new Random(3);
+        final RegexAutomaton automaton = RegexAutomaton.compile("[a-zA-Z]*", 10, 10);
+        for (int i = 0; i < 100; i++) {
+            assertThat(walk(automaton, random).length(), is(10));
+        }
+    }
+
+    @Test
+    public void shouldGenerateTheSameStringsForTheSameSeed() {
+        final RegexAutomaton first = RegexAutomaton.compile("(cat|dog|bird)s?-\\w{3}", 0, 100);
+        final RegexAutomaton second = RegexAutomaton.compile("(cat|dog|bird)s?-\\w{3}", 0, 100);
+        final Random firstRandom = new Random(4);
+        final Random secondRandom = new Random(4);
+        for (int i = 0; i < 100; i++) {
+            assertThat(walk(first, firstRandom), is(walk(second, secondRandom)));
+        }
+    }
+
+    @Test
+    public void shouldReportAsciiAlphabets() {
+        assertThat(RegexAutomaton.compile("[a-z]+", 0, 10).isAscii(), is(true));
+        assertThat(RegexAutomaton.compile("caf[eé]", 0, 10).isAscii(), is(false));
+    }
+
+    @Test
+    public void shouldGrowBufferForLongAffixedValues() {
+        final Generator generator = new Generator.Builder().schemaString(
+                "{\"type\": \"string\", \"arg.properties\": "
+                        + "{\"regex\": \"[a-z]{100}\", \"prefix\": \"pre-\", \"suffix\": \"-post\"}}"
+        ).build();
+
+        final String value = generator.generate().toString();
+
+        assertThat(value, Pattern.matches("pre-[a-z]{100}-post", value), is(true));
+    }
+
+    @Test
+    public void shouldRecogniseFixedSequencesOfAsciiCharacterClasses() {
+        final byte[][] classes = RegexAutomaton.compile("ID-[a-f0-9]{2}", 0, 10).asciiCharacterClasses();
+
+        assertThat(classes.length, is(5));
+        assertThat(new String(classes[0], StandardCharsets.US_ASCII), is("I"));
+        assertThat(new String(classes[3], StandardCharsets.US_ASCII), is("0123456789abcdef"));
+        assertThat(RegexAutomaton.compile("[A-Z]{2}\\d{6}[A-Z]", 0, 10).asciiCharacterClasses().length, is(9));
+    }
+
+    @Test
+    public void shouldNotRecogniseVariableLengthOrNonAsciiRegexesAsCharacterClasses() {
+        assertThat(RegexAutomaton.compile("[a-z]{1,3}", 0, 10).asciiCharacterClasses(), is(nullValue()));
+        assertThat(RegexAutomaton.compile("[a-z]*", 0, 10).asciiCharacterClasses(), is(nullValue()));
+        assertThat(RegexAutomaton.compile("(ab|cde)", 0, 10).asciiCharacterClasses(), is(nullValue()));
+        assertThat(RegexAutomaton.compile("caf[eé]", 0, 10).asciiCharacterClasses(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldGenerateFixedCharacterClassSequences() {
+        final Generator generator = new Generator.Builder().schemaString(
+                "{\"type\": \"string\", \"arg.properties\": "
+                        + "{\"regex\": \"[a-f0-9]{32}|[A-Z]{32}\", \"prefix\": \"é-\"}}"
+        ).build();
+        final Generator fixed = new Generator.Builder().schemaString(
+                "{\"type\": \"string\", \"arg.properties\": "
+                        + "{\"regex\": \"[a-f0-9]{32}\", \"prefix\": \"é-\"}}"
+        ).build();
+
+        final boolean[] seen = new boolean[128];
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(Pattern.matches("é-([a-f0-9]{32}|[A-Z]{32})", generator.generate().toString()), is(true));
+            final String value = fixed.generate().toString();
+            assertThat(value, Pattern.matches("é-[a-f0-9]{32}", value), is(true));
+            value.substring(2).chars().forEach(c -> seen[c] = true);
+        }
+        for (final char c : "0123456789abcdef".toCharArray()) {
+            assertThat("character " + c, seen[c], is(true));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectLengthBoundsTheRegexCannotMeet() {
+        RegexAutomaton.compile("[a-z]{3}", 5, 10);
+    }
+
+    private static String walk(final RegexAutomaton automaton, final Random random) {
+        final StringBuilder builder = new StringBuilder();
+        int state = automaton.start();
+        for (long step = automaton.next(random, state, 0);
+             step != RegexAutomaton.STOP;
+             step = automaton.next(random, state, builder.length())) {
+            builder.append((char) (step >>> Integer.SIZE));
+            state = (int) step;
+        }
+        return builder.toString();
+    }
+}
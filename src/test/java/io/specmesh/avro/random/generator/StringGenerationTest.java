@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.specmesh.avro.random.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import io.specmesh.avro.random.generator.util.ResourceUtil;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+
+public class StringGenerationTest {
+
+    private static final String STRINGS_SCHEMA =
+            ResourceUtil.loadContent("test-schemas/strings.json");
+
+    @Test
+    public void shouldOnlyGeneratePrintableCharactersWhenRequested() {
+        final Generator generator = new Generator.Builder().schemaString(STRINGS_SCHEMA).build();
+
+        for (int i = 0; i < 1_000; i++) {
+            final GenericRecord record = (GenericRecord) generator.generate();
+            assertThat(record.get("ascii").toString().chars().allMatch(c -> c < 128), is(true));
+            assertThat(record.get("printable").toString().chars().allMatch(c -> c >= ' ' && c <= '~'), is(true));
+        }
+    }
+
+    @Test
+    public void shouldCoverAllPrintableCharacters() {
+        final Generator generator = new Generator.Builder().schemaString(STRINGS_SCHEMA).build();
+
+        final boolean[] seen = new boolean['~' + 1];
+        for (int i = 0; i < 1_000; i++) {
+            ((GenericRecord) generator.generate()).get("printable").toString().chars().forEach(c -> seen[c] = true);
+        }
+
+        for (char c = ' '; c <= '~'; c++) {
+            assertThat("character " + c, seen[c], is(true));
+        }
+    }
+
+    @Test
+    public void shouldKeepNonAsciiAffixes() {
+        final Generator generator = new Generator.Builder().schemaString(STRINGS_SCHEMA).build();
+
+        final String affixed = ((GenericRecord) generator.generate()).get("printable_affixed").toString();
+
+        assertThat(affixed, startsWith("préfixe-"));
+        assertThat(affixed, endsWith("-✓"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectPrintableWithRegex() {
+        new Generator.Builder().schemaString(
+                "{\"type\": \"string\", \"arg.properties\": {\"regex\": \"[a-z]+\", \"printable\": true}}"
+        ).build();
+    }
+}